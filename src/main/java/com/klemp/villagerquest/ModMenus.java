@@ -0,0 +1,16 @@
+package com.klemp.villagerquest;
+
+import com.klemp.villagerquest.menu.DeliveryMenu;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraftforge.common.extensions.IForgeMenuType;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModMenus {
+    public static final DeferredRegister<MenuType<?>> MENUS = 
+        DeferredRegister.create(ForgeRegistries.MENU_TYPES, VillagerQuestMod.MOD_ID);
+
+    public static final RegistryObject<MenuType<DeliveryMenu>> DELIVERY = MENUS.register("delivery",
+        () -> IForgeMenuType.create(DeliveryMenu::new));
+}
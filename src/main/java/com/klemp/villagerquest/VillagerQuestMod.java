@@ -1,14 +1,25 @@
 package com.klemp.villagerquest;
 
+import com.klemp.villagerquest.command.QuestCommands;
 import com.klemp.villagerquest.config.QuestConfig;
+import com.klemp.villagerquest.handler.MarkerCleanupHandler;
+import com.klemp.villagerquest.handler.QuestBookTracker;
 import com.klemp.villagerquest.handler.QuestMarkerSyncHandler;
 import com.klemp.villagerquest.handler.QuestValidationHandler;
+import com.klemp.villagerquest.handler.SpawnSiteSampler;
+import com.klemp.villagerquest.handler.StaleQuestSweeper;
+import com.klemp.villagerquest.handler.TickScheduler;
 import com.klemp.villagerquest.handler.VillagerInteractionHandler;
+import com.klemp.villagerquest.handler.VillagerTrackingHandler;
 import com.klemp.villagerquest.handler.WanderingVillagerSpawner;
+import com.klemp.villagerquest.metrics.Diagnostics;
 import com.klemp.villagerquest.network.NetworkHandler;
+import com.klemp.villagerquest.network.QuestOfferCache;
+import com.klemp.villagerquest.network.RequestGovernor;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import org.apache.logging.log4j.LogManager;
@@ -29,15 +40,35 @@ public class VillagerQuestMod {
         ModItems.ITEMS.register(modEventBus);
         ModBlocks.BLOCKS.register(modEventBus);
         ModEntities.ENTITIES.register(modEventBus);
+        ModMenus.MENUS.register(modEventBus);
         
         // Register common setup
         modEventBus.addListener(this::commonSetup);
+        modEventBus.addListener(this::onConfigLoad);
+        modEventBus.addListener(this::onConfigReload);
         
         // Register event handlers
         MinecraftForge.EVENT_BUS.register(new VillagerInteractionHandler());
         MinecraftForge.EVENT_BUS.register(new QuestValidationHandler());
-        MinecraftForge.EVENT_BUS.register(new WanderingVillagerSpawner());
-        MinecraftForge.EVENT_BUS.register(new QuestMarkerSyncHandler());
+        QuestMarkerSyncHandler markerSyncHandler = new QuestMarkerSyncHandler();
+        MinecraftForge.EVENT_BUS.register(markerSyncHandler);
+        MinecraftForge.EVENT_BUS.register(new VillagerTrackingHandler());
+        MinecraftForge.EVENT_BUS.register(new SpawnSiteSampler());
+        MinecraftForge.EVENT_BUS.register(new QuestCommands());
+        MinecraftForge.EVENT_BUS.register(new RequestGovernor());
+        MinecraftForge.EVENT_BUS.register(new QuestOfferCache());
+        MarkerCleanupHandler markerCleanupHandler = new MarkerCleanupHandler();
+        MinecraftForge.EVENT_BUS.register(markerCleanupHandler);
+        QuestBookTracker questBookTracker = new QuestBookTracker();
+        MinecraftForge.EVENT_BUS.register(questBookTracker);
+        
+        // Register periodic jobs, all driven by the tick scheduler
+        MinecraftForge.EVENT_BUS.register(new TickScheduler());
+        markerSyncHandler.schedule();
+        new WanderingVillagerSpawner().schedule();
+        new StaleQuestSweeper().schedule();
+        markerCleanupHandler.schedule();
+        questBookTracker.schedule();
         
         LOGGER.info("Villager Quest Mod initialized!");
     }
@@ -45,4 +76,16 @@ public class VillagerQuestMod {
     private void commonSetup(final FMLCommonSetupEvent event) {
         event.enqueueWork(NetworkHandler::register);
     }
+
+    private void onConfigLoad(final ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == QuestConfig.SPEC) {
+            Diagnostics.reloadConfig();
+        }
+    }
+
+    private void onConfigReload(final ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == QuestConfig.SPEC) {
+            Diagnostics.reloadConfig();
+        }
+    }
 }
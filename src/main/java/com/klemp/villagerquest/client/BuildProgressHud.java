@@ -0,0 +1,234 @@
+package com.klemp.villagerquest.client;
+
+import com.klemp.villagerquest.quest.StructureValidator;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.gui.overlay.IGuiOverlay;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+
+/**
+ * Shows how far the player's building quest is along: placed and required blocks, the furniture
+ * and whether the building is closed off. Everything is worked out from the client's copy of the
+ * world. The site is swept a slice per tick and only blocks that differ from the last sweep change
+ * the counts; the enclosure flood fill runs after a sweep that saw changes.
+ * <p>
+ * Sweeping only happens while the player is close enough to see the overlay, and stops after a
+ * sweep that found nothing new. It starts again when the player clicks a block in the site, comes
+ * back near it, or every {@link #REARM_INTERVAL} ticks to pick up what other players built.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT)
+public class BuildProgressHud {
+    private static final int BLOCKS_PER_TICK = 2048;
+    private static final int LAYOUT_CHECK_INTERVAL = 20;
+    private static final int REARM_INTERVAL = 200;
+    // Keep sweeping this long after a click, the server's answer to it takes a moment to arrive
+    private static final int WAKE_TICKS = 20;
+    private static final int SHOW_DISTANCE = 32;
+    private static final int MAX_LINES = 8;
+
+    private static Site site;
+
+    private static class Site {
+        final ResourceKey<Level> dimension;
+        final VillagerQuest quest;
+        final BlockPos min;
+        final int sizeX;
+        final int sizeY;
+        final int sizeZ;
+        // Block seen at each position in the last sweep, null until first read
+        final Block[] seen;
+        final Map<Block, Integer> placed = new HashMap<>();
+        int cursor;
+        // Changes not yet seen by a layout check, and changes in the sweep under way
+        boolean changed;
+        boolean passChanged;
+        boolean idle;
+        long idleSince;
+        long awakeUntil;
+        StructureValidator.LayoutCheck layout;
+        long lastLayoutCheck = -LAYOUT_CHECK_INTERVAL;
+
+        Site(ResourceKey<Level> dimension, VillagerQuest quest) {
+            this.dimension = dimension;
+            this.quest = quest;
+            this.min = quest.getMinPos();
+            BlockPos max = quest.getMaxPos();
+            this.sizeX = max.getX() - min.getX() + 1;
+            this.sizeY = max.getY() - min.getY() + 1;
+            this.sizeZ = max.getZ() - min.getZ() + 1;
+            this.seen = new Block[sizeX * sizeY * sizeZ];
+        }
+    }
+
+    public static void track(UUID villagerUUID, ResourceKey<Level> dimension, BlockPos min, BlockPos max,
+                             VillagerQuest.QuestType questType, Map<Block, Integer> requiredBlocks) {
+        site = new Site(dimension, new VillagerQuest(villagerUUID, min, max, questType, requiredBlocks, 0));
+    }
+
+    public static void untrack(UUID villagerUUID) {
+        if (site != null && site.quest.getVillagerUUID().equals(villagerUUID)) {
+            site = null;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        site = null;
+    }
+
+    @SubscribeEvent
+    public static void onRightClickBlock(PlayerInteractEvent.RightClickBlock event) {
+        wake(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onLeftClickBlock(PlayerInteractEvent.LeftClickBlock event) {
+        wake(event.getLevel(), event.getPos());
+    }
+
+    // Placing against the outside of the site changes the block next to the clicked one
+    private static void wake(Level level, BlockPos pos) {
+        Site current = site;
+        if (current == null || !level.isClientSide() || !level.dimension().equals(current.dimension)) return;
+        BlockPos min = current.min;
+        if (pos.getX() < min.getX() - 1 || pos.getX() > min.getX() + current.sizeX
+            || pos.getY() < min.getY() - 1 || pos.getY() > min.getY() + current.sizeY
+            || pos.getZ() < min.getZ() - 1 || pos.getZ() > min.getZ() + current.sizeZ) {
+            return;
+        }
+        current.idle = false;
+        current.awakeUntil = level.getGameTime() + WAKE_TICKS;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || site == null) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        ClientLevel level = mc.level;
+        if (level == null || mc.player == null || !level.dimension().equals(site.dimension)) return;
+
+        // Nobody sees the counts from further away; start over when the player comes back
+        if (!isNear(site, mc.player)) {
+            site.idle = false;
+            return;
+        }
+        if (site.idle) {
+            if (level.getGameTime() - site.idleSince < REARM_INTERVAL) return;
+            site.idle = false;
+        }
+        // Unloaded chunks read as air and would look like blocks were broken
+        if (!level.hasChunksAt(site.quest.getMinPos(), site.quest.getMaxPos())) return;
+
+        sweep(site, level);
+    }
+
+    private static boolean isNear(Site site, Player player) {
+        BlockPos center = site.min.offset(site.sizeX / 2, 0, site.sizeZ / 2);
+        return Math.abs(player.getBlockX() - center.getX()) <= site.sizeX / 2 + SHOW_DISTANCE
+            && Math.abs(player.getBlockZ() - center.getZ()) <= site.sizeZ / 2 + SHOW_DISTANCE;
+    }
+
+    private static void sweep(Site site, ClientLevel level) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < BLOCKS_PER_TICK; i++) {
+            int index = site.cursor;
+            int x = index / (site.sizeY * site.sizeZ);
+            int y = (index / site.sizeZ) % site.sizeY;
+            int z = index % site.sizeZ;
+            Block block = level.getBlockState(pos.set(site.min.getX() + x, site.min.getY() + y, site.min.getZ() + z)).getBlock();
+
+            Block previous = site.seen[index];
+            if (block != previous) {
+                if (previous != null && previous != Blocks.AIR) {
+                    site.placed.merge(previous, -1, Integer::sum);
+                }
+                if (block != Blocks.AIR) {
+                    site.placed.merge(block, 1, Integer::sum);
+                }
+                site.seen[index] = block;
+                site.changed = true;
+                site.passChanged = true;
+            }
+
+            site.cursor = (index + 1) % site.seen.length;
+            if (site.cursor == 0) {
+                finishSweep(site, level);
+                return; // At most one full sweep per tick
+            }
+        }
+    }
+
+    private static void finishSweep(Site site, ClientLevel level) {
+        long now = level.getGameTime();
+        if (site.changed && now - site.lastLayoutCheck >= LAYOUT_CHECK_INTERVAL) {
+            site.layout = StructureValidator.checkLayout(site.quest, level);
+            site.lastLayoutCheck = now;
+            site.changed = false;
+        }
+
+        // Nothing moved and the layout is current, so the next sweep would find the same
+        if (!site.passChanged && !site.changed && now >= site.awakeUntil) {
+            site.idle = true;
+            site.idleSince = now;
+        }
+        site.passChanged = false;
+    }
+
+    public static final IGuiOverlay OVERLAY = (gui, graphics, partialTick, screenWidth, screenHeight) -> {
+        Minecraft mc = Minecraft.getInstance();
+        Site current = site;
+        if (current == null || current.layout == null || mc.player == null || mc.level == null) return;
+        if (mc.options.hideGui || mc.options.renderDebug) return;
+        if (!mc.level.dimension().equals(current.dimension) || !isNear(current, mc.player)) return;
+
+        render(graphics, mc.font, current);
+    };
+
+    private static void render(GuiGraphics graphics, Font font, Site site) {
+        List<String> lines = new ArrayList<>();
+        int totalPlaced = 0;
+        int totalRequired = 0;
+        for (Map.Entry<Block, Integer> requirement : site.quest.getRequiredBlocks().entrySet()) {
+            int required = requirement.getValue();
+            int placed = Math.min(site.placed.getOrDefault(requirement.getKey(), 0), required);
+            totalPlaced += placed;
+            totalRequired += required;
+            if (lines.size() < MAX_LINES) {
+                String color = placed >= required ? "§a" : "§f";
+                lines.add(color + placed + "/" + required + " §7" + requirement.getKey().getName().getString());
+            }
+        }
+
+        String furniture = site.quest.getQuestType() == VillagerQuest.QuestType.PERSONAL_RESIDENCE ? "Bed" : "Workstation";
+        StructureValidator.LayoutCheck layout = site.layout;
+        lines.add(layout.hasFurniture() ? "§a" + furniture + " placed" : "§c" + furniture + " missing");
+        if (layout.hasFurniture()) {
+            lines.add(layout.enclosed() ? "§aEnclosed" : "§eAir leaks to the outside");
+        }
+
+        int x = 4;
+        int y = 4;
+        graphics.drawString(font, "§6Building: §f" + totalPlaced + "/" + totalRequired + " blocks", x, y, 0xFFFFFF);
+        for (String line : lines) {
+            y += 10;
+            graphics.drawString(font, line, x, y, 0xFFFFFF);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.klemp.villagerquest.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+
+/**
+ * Draws the build site of the player's quest: an outline of the area and a post at each corner.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT)
+public class BuildSiteRenderer {
+    private static final double POST_HEIGHT = 2.0;
+    private static final Map<UUID, BuildSite> sites = new HashMap<>();
+
+    // Boxes are built once when the site arrives, not every frame
+    private record BuildSite(ResourceKey<Level> dimension, BlockPos min, BlockPos max, AABB outline, List<AABB> posts) {}
+
+    public static void addSite(UUID villagerUUID, ResourceKey<Level> dimension, BlockPos min, BlockPos max,
+                               List<BlockPos> corners) {
+        AABB outline = new AABB(min.getX(), min.getY(), min.getZ(), max.getX() + 1, max.getY() + 1, max.getZ() + 1);
+
+        List<AABB> posts = new ArrayList<>();
+        for (BlockPos corner : corners) {
+            posts.add(new AABB(corner.getX() + 0.375, corner.getY(), corner.getZ() + 0.375,
+                corner.getX() + 0.625, corner.getY() + POST_HEIGHT, corner.getZ() + 0.625));
+        }
+        sites.put(villagerUUID, new BuildSite(dimension, min, max, outline, posts));
+    }
+
+    // Corners of the build area in the given dimension, null if the player has no site there
+    public static BlockPos[] getSiteArea(UUID villagerUUID, ResourceKey<Level> dimension) {
+        BuildSite site = sites.get(villagerUUID);
+        if (site == null || !site.dimension().equals(dimension)) {
+            return null;
+        }
+        return new BlockPos[] { site.min(), site.max() };
+    }
+
+    public static void removeSite(UUID villagerUUID) {
+        sites.remove(villagerUUID);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        sites.clear();
+    }
+
+    @SubscribeEvent
+    public static void onRenderLevel(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS) return;
+        if (sites.isEmpty()) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.level == null) return;
+
+        PoseStack poseStack = event.getPoseStack();
+        Vec3 camera = event.getCamera().getPosition();
+        MultiBufferSource.BufferSource buffers = mc.renderBuffers().bufferSource();
+        VertexConsumer lines = buffers.getBuffer(RenderType.lines());
+
+        poseStack.pushPose();
+        poseStack.translate(-camera.x, -camera.y, -camera.z);
+
+        for (BuildSite site : sites.values()) {
+            if (!site.dimension().equals(mc.level.dimension())) continue;
+
+            LevelRenderer.renderLineBox(poseStack, lines, site.outline(), 0.3F, 0.9F, 0.3F, 0.6F);
+            for (AABB post : site.posts()) {
+                LevelRenderer.renderLineBox(poseStack, lines, post, 1.0F, 0.85F, 0.2F, 1.0F);
+            }
+        }
+
+        poseStack.popPose();
+        buffers.endBatch(RenderType.lines());
+    }
+}
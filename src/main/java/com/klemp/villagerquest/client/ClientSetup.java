@@ -0,0 +1,25 @@
+package com.klemp.villagerquest.client;
+
+import com.klemp.villagerquest.ModMenus;
+import com.klemp.villagerquest.VillagerQuestMod;
+import com.klemp.villagerquest.client.screen.DeliveryTurnInScreen;
+import net.minecraft.client.gui.screens.MenuScreens;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
+
+@Mod.EventBusSubscriber(modid = VillagerQuestMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+public class ClientSetup {
+
+    @SubscribeEvent
+    public static void onClientSetup(FMLClientSetupEvent event) {
+        event.enqueueWork(() -> MenuScreens.register(ModMenus.DELIVERY.get(), DeliveryTurnInScreen::new));
+    }
+
+    @SubscribeEvent
+    public static void onRegisterOverlays(RegisterGuiOverlaysEvent event) {
+        event.registerAboveAll("build_progress", BuildProgressHud.OVERLAY);
+    }
+}
@@ -0,0 +1,37 @@
+package com.klemp.villagerquest.client;
+
+import com.klemp.villagerquest.network.OpenQuestOfferPacket;
+import com.klemp.villagerquest.network.QuestOfferCache;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Map;
+
+/**
+ * Offer details received from the server, keyed by villager entity id. Mirrors the server's
+ * {@link QuestOfferCache}: every offer packet touches it exactly once, in arrival order.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT)
+public class QuestDetailCache {
+    private record Entry(int version, OpenQuestOfferPacket.Details details) {}
+
+    private static final Map<Integer, Entry> entries = QuestOfferCache.newLruMap();
+
+    public static OpenQuestOfferPacket.Details put(int villagerId, int version, OpenQuestOfferPacket.Details details) {
+        entries.put(villagerId, new Entry(version, details));
+        return details;
+    }
+
+    // Null if the cached details are missing or of another version
+    public static OpenQuestOfferPacket.Details get(int villagerId, int version) {
+        Entry entry = entries.get(villagerId);
+        return entry != null && entry.version() == version ? entry.details() : null;
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        entries.clear();
+    }
+}
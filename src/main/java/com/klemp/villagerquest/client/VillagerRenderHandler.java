@@ -1,65 +1,150 @@
 package com.klemp.villagerquest.client;
 
+import com.klemp.villagerquest.VillagerQuestMod;
+import com.klemp.villagerquest.quest.QuestMarkerState;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.gui.Font;
+import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
-import net.minecraftforge.client.event.RenderLivingEvent;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
 
-import java.util.*;
-
+/**
+ * Draws the quest indicators over villagers' heads, all of them in one batch per frame.
+ * Indicators outside the view or beyond {@link #MAX_DISTANCE} are skipped, and past
+ * {@link #DETAIL_DISTANCE} the icon is swapped for a plain colored dot.
+ */
 @Mod.EventBusSubscriber(value = Dist.CLIENT)
 public class VillagerRenderHandler {
-    // Store which villagers have quest markers (exclamation mark) or active quests (hourglass)
-    private static final Set<UUID> villagersWithQuestMarkers = new HashSet<>();
-    private static final Set<UUID> villagersWithActiveQuests = new HashSet<>();
+    private static final ResourceLocation ATLAS = new ResourceLocation(VillagerQuestMod.MOD_ID, "textures/gui/quest_indicators.png");
+    private static final RenderType INDICATOR_TYPE = RenderType.text(ATLAS);
+
+    private static final double MAX_DISTANCE = 64.0;
+    private static final double DETAIL_DISTANCE = 24.0;
+    private static final float ICON_SIZE = 0.25F;
+    private static final float DOT_SIZE = 0.125F;
+
+    // Icons are 16x16 cells in a 64x16 atlas, the last cell is the far away dot
+    private static final float CELL_WIDTH = 0.25F;
+    private static final int DOT_CELL = 3;
+
+    // Which atlas cell and dot color each state uses
+    private record Indicator(int cell, int dotColor) {}
+    private static final Indicator AVAILABLE_ICON = new Indicator(0, 0xFFFFFF00);
+    private static final Indicator ACTIVE_ICON = new Indicator(1, 0xFFFFAA00);
+    private static final Indicator THINKING_ICON = new Indicator(2, 0xFFAAAAAA);
 
-    public static void setQuestMarkers(Set<UUID> markers) {
-        villagersWithQuestMarkers.clear();
-        villagersWithQuestMarkers.addAll(markers);
+    // Keyed by entity network id
+    private static final Int2ObjectMap<Indicator> indicators = new Int2ObjectOpenHashMap<>();
+
+    public static void setMarkerState(int villagerId, QuestMarkerState state) {
+        switch (state) {
+            case AVAILABLE -> indicators.put(villagerId, AVAILABLE_ICON);
+            case ACTIVE -> indicators.put(villagerId, ACTIVE_ICON);
+            case THINKING -> indicators.put(villagerId, THINKING_ICON);
+            default -> indicators.remove(villagerId);
+        }
     }
 
-    public static void setActiveQuests(Set<UUID> active) {
-        villagersWithActiveQuests.clear();
-        villagersWithActiveQuests.addAll(active);
+    // The server attaches the state again when the villager is tracked next time
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getLevel().isClientSide() && event.getEntity() instanceof Villager villager) {
+            indicators.remove(villager.getId());
+        }
     }
 
     @SubscribeEvent
-    public static void onRenderVillager(RenderLivingEvent.Post<Villager, ?> event) {
-        if (!(event.getEntity() instanceof Villager villager)) return;
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        indicators.clear();
+    }
 
-        UUID villagerUUID = villager.getUUID();
-        PoseStack poseStack = event.getPoseStack();
-        MultiBufferSource buffer = event.getMultiBufferSource();
-        int packedLight = event.getPackedLight();
-
-        poseStack.pushPose();
-        
-        // Position above villager's head
-        poseStack.translate(0, villager.getBbHeight() + 0.5, 0);
-        poseStack.scale(0.025F, 0.025F, 0.025F);
-        
-        // Make it always face the player
-        poseStack.mulPose(Minecraft.getInstance().getEntityRenderDispatcher().cameraOrientation());
-        poseStack.scale(-1.0F, -1.0F, 1.0F);
+    @SubscribeEvent
+    public static void onRenderLevel(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS) return;
+        if (indicators.isEmpty()) return;
 
         Minecraft mc = Minecraft.getInstance();
-        Font font = mc.font;
-        
-        if (villagersWithActiveQuests.contains(villagerUUID)) {
-            // Draw hourglass symbol (⏳) for active quest - using ! as fallback
-            font.drawInBatch("!", -2, -4, 0xFFFFAA00, false, 
-                poseStack.last().pose(), buffer, Font.DisplayMode.NORMAL, 0, packedLight);
-        } else if (villagersWithQuestMarkers.contains(villagerUUID)) {
-            // Draw exclamation mark (!) for available quest
-            font.drawInBatch("!", -2, -4, 0xFFFFFF00, false, 
-                poseStack.last().pose(), buffer, Font.DisplayMode.NORMAL, 0, packedLight);
+        if (mc.level == null) return;
+
+        Camera camera = event.getCamera();
+        Vec3 cameraPos = camera.getPosition();
+        Frustum frustum = event.getFrustum();
+        float partialTick = event.getPartialTick();
+
+        // Every quad faces the camera, so the corner offsets are the same for all of them
+        Vector3f left = camera.getLeftVector();
+        Vector3f up = camera.getUpVector();
+
+        PoseStack poseStack = event.getPoseStack();
+        Matrix4f pose = poseStack.last().pose();
+        MultiBufferSource.BufferSource buffers = mc.renderBuffers().bufferSource();
+        VertexConsumer consumer = null;
+
+        for (Int2ObjectMap.Entry<Indicator> entry : indicators.int2ObjectEntrySet()) {
+            Entity villager = mc.level.getEntity(entry.getIntKey());
+            if (villager == null || villager.isInvisible()) continue;
+
+            double distanceSqr = villager.distanceToSqr(cameraPos);
+            if (distanceSqr > MAX_DISTANCE * MAX_DISTANCE) continue;
+            if (!frustum.isVisible(villager.getBoundingBoxForCulling().expandTowards(0, 1.0, 0))) continue;
+
+            float x = (float) (Mth.lerp(partialTick, villager.xo, villager.getX()) - cameraPos.x);
+            float y = (float) (Mth.lerp(partialTick, villager.yo, villager.getY()) + villager.getBbHeight() + 0.5 - cameraPos.y);
+            float z = (float) (Mth.lerp(partialTick, villager.zo, villager.getZ()) - cameraPos.z);
+
+            if (consumer == null) {
+                consumer = buffers.getBuffer(INDICATOR_TYPE);
+            }
+            Indicator indicator = entry.getValue();
+            if (distanceSqr > DETAIL_DISTANCE * DETAIL_DISTANCE) {
+                addQuad(consumer, pose, x, y, z, left, up, DOT_SIZE, DOT_CELL, indicator.dotColor());
+            } else {
+                addQuad(consumer, pose, x, y, z, left, up, ICON_SIZE, indicator.cell(), 0xFFFFFFFF);
+            }
         }
 
-        poseStack.popPose();
+        if (consumer != null) {
+            buffers.endBatch(INDICATOR_TYPE);
+        }
+    }
+
+    private static void addQuad(VertexConsumer consumer, Matrix4f pose, float x, float y, float z,
+                                Vector3f left, Vector3f up, float halfSize, int cell, int color) {
+        float lx = left.x() * halfSize, ly = left.y() * halfSize, lz = left.z() * halfSize;
+        float ux = up.x() * halfSize, uy = up.y() * halfSize, uz = up.z() * halfSize;
+        float u0 = cell * CELL_WIDTH;
+        float u1 = u0 + CELL_WIDTH;
+
+        // Counter-clockwise as seen from the camera: bottom left, bottom right, top right, top left
+        vertex(consumer, pose, x + lx - ux, y + ly - uy, z + lz - uz, u0, 1.0F, color);
+        vertex(consumer, pose, x - lx - ux, y - ly - uy, z - lz - uz, u1, 1.0F, color);
+        vertex(consumer, pose, x - lx + ux, y - ly + uy, z - lz + uz, u1, 0.0F, color);
+        vertex(consumer, pose, x + lx + ux, y + ly + uy, z + lz + uz, u0, 0.0F, color);
+    }
+
+    private static void vertex(VertexConsumer consumer, Matrix4f pose, float x, float y, float z, float u, float v, int color) {
+        consumer.vertex(pose, x, y, z)
+            .color(color)
+            .uv(u, v)
+            .uv2(LightTexture.FULL_BRIGHT)
+            .endVertex();
     }
 }
@@ -0,0 +1,94 @@
+package com.klemp.villagerquest.client.screen;
+
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.locale.Language;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.util.Mth;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A column of text rows for the quest screens, laid out once when its data changes instead of every frame.
+ * Rows are cut or wrapped to the width up front and kept as ready-to-draw sequences; only the rows
+ * that fit in the view are drawn, the rest are reached with the mouse wheel.
+ */
+public class CachedTextList {
+    private static final int ROW_HEIGHT = 12;
+
+    private final Font font;
+    private final int width;
+    private final int visibleRows;
+    private List<FormattedCharSequence> lines = List.of();
+    private int scroll;
+    private int x;
+    private int y;
+
+    public CachedTextList(Font font, int width, int visibleRows) {
+        this.font = font;
+        this.width = width;
+        this.visibleRows = visibleRows;
+    }
+
+    // Screens move it in init(), which also runs again on resize
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // One line per row, cut off at the width
+    public void setRows(List<Component> rows) {
+        List<FormattedCharSequence> laidOut = new ArrayList<>(rows.size());
+        for (Component row : rows) {
+            laidOut.add(Language.getInstance().getVisualOrder(font.substrByWidth(row, width)));
+        }
+        setLines(laidOut);
+    }
+
+    // Rows wrap onto as many lines as they need
+    public void setWrapped(List<Component> rows) {
+        List<FormattedCharSequence> laidOut = new ArrayList<>();
+        for (Component row : rows) {
+            laidOut.addAll(font.split(row, width));
+        }
+        setLines(laidOut);
+    }
+
+    private void setLines(List<FormattedCharSequence> lines) {
+        this.lines = lines;
+        this.scroll = Mth.clamp(scroll, 0, maxScroll());
+    }
+
+    public int getHeight() {
+        return visibleRows * ROW_HEIGHT;
+    }
+
+    public boolean mouseScrolled(double mouseX, double mouseY, double delta) {
+        if (mouseX < x || mouseX >= x + width || mouseY < y || mouseY >= y + getHeight()) {
+            return false;
+        }
+        scroll = Mth.clamp(scroll - (int) Math.signum(delta), 0, maxScroll());
+        return true;
+    }
+
+    public void render(GuiGraphics graphics) {
+        int end = Math.min(lines.size(), scroll + visibleRows);
+        for (int i = scroll; i < end; i++) {
+            graphics.drawString(font, lines.get(i), x, y + (i - scroll) * ROW_HEIGHT, 0xFFFFFF);
+        }
+
+        // Thin scroll bar when not everything fits
+        if (maxScroll() > 0) {
+            int barHeight = Math.max(4, getHeight() * visibleRows / lines.size());
+            int barY = y + (getHeight() - barHeight) * scroll / maxScroll();
+            graphics.fill(x + width + 2, y, x + width + 3, y + getHeight(), 0x40FFFFFF);
+            graphics.fill(x + width + 2, barY, x + width + 3, barY + barHeight, 0xFFAAAAAA);
+        }
+    }
+
+    private int maxScroll() {
+        return Math.max(0, lines.size() - visibleRows);
+    }
+}
@@ -0,0 +1,181 @@
+package com.klemp.villagerquest.client.screen;
+
+import com.klemp.villagerquest.network.CloseQuestBookPacket;
+import com.klemp.villagerquest.network.NetworkHandler;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import com.mojang.math.Axis;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// The player's active quest, with compass needles to the quest villager and the build site
+public class QuestBookScreen extends Screen {
+    private final int session;
+    private final VillagerQuest.QuestType questType;
+    private final Map<Block, Integer> requiredBlocks;
+    private final int reward;
+    private final BlockPos siteMin;
+    private final BlockPos siteMax;
+    private BlockPos villagerPos;
+    private CachedTextList requirementList;
+
+    private static final int WINDOW_WIDTH = 250;
+    private static final int WINDOW_HEIGHT = 210;
+    private static final int NEEDLE_LENGTH = 8;
+
+    public QuestBookScreen(int session, VillagerQuest.QuestType questType, Map<Block, Integer> requiredBlocks, int reward,
+                           BlockPos siteMin, BlockPos siteMax, BlockPos villagerPos) {
+        super(Component.literal("Quest Book"));
+        this.session = session;
+        this.questType = questType;
+        this.requiredBlocks = requiredBlocks;
+        this.reward = reward;
+        this.siteMin = siteMin;
+        this.siteMax = siteMax;
+        this.villagerPos = villagerPos;
+    }
+
+    public int getSession() {
+        return session;
+    }
+
+    // Sent by the server while the screen is open, whenever the villager moved
+    public void setVillagerPos(BlockPos villagerPos) {
+        this.villagerPos = villagerPos;
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+
+        int centerX = this.minecraft.getWindow().getGuiScaledWidth() / 2;
+        int centerY = this.minecraft.getWindow().getGuiScaledHeight() / 2;
+
+        this.addRenderableWidget(Button.builder(
+            Component.literal("Close"),
+            button -> this.onClose())
+            .bounds(centerX - 40, centerY + WINDOW_HEIGHT / 2 - 28, 80, 20)
+            .build());
+
+        List<Component> rows = new ArrayList<>();
+        for (Map.Entry<Block, Integer> entry : requiredBlocks.entrySet()) {
+            rows.add(Component.literal("§f• " + entry.getValue() + "x §7" + entry.getKey().getName().getString()));
+        }
+        requirementList = new CachedTextList(this.font, WINDOW_WIDTH - 30, 4);
+        requirementList.setPosition(centerX - WINDOW_WIDTH / 2 + 15, centerY - WINDOW_HEIGHT / 2 + 67);
+        requirementList.setRows(rows);
+    }
+
+    @Override
+    public void removed() {
+        NetworkHandler.INSTANCE.sendToServer(new CloseQuestBookPacket(session));
+    }
+
+    @Override
+    public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
+        this.renderBackground(graphics);
+
+        int centerX = this.minecraft.getWindow().getGuiScaledWidth() / 2;
+        int centerY = this.minecraft.getWindow().getGuiScaledHeight() / 2;
+        int left = centerX - WINDOW_WIDTH / 2;
+        int top = centerY - WINDOW_HEIGHT / 2;
+
+        graphics.fill(left, top, left + WINDOW_WIDTH, top + WINDOW_HEIGHT, 0xC0101010);
+        graphics.fill(left, top, left + WINDOW_WIDTH, top + 2, 0xFF8B8B8B);
+        graphics.fill(left, top + WINDOW_HEIGHT - 2, left + WINDOW_WIDTH, top + WINDOW_HEIGHT, 0xFF8B8B8B);
+        graphics.fill(left, top, left + 2, top + WINDOW_HEIGHT, 0xFF8B8B8B);
+        graphics.fill(left + WINDOW_WIDTH - 2, top, left + WINDOW_WIDTH, top + WINDOW_HEIGHT, 0xFF8B8B8B);
+
+        graphics.drawCenteredString(this.font, "§6§lQuest Details", centerX, top + 10, 0xFFFFFF);
+
+        String questTypeName = questType == VillagerQuest.QuestType.PERSONAL_RESIDENCE ?
+            "Personal Residence" :
+            (questType == VillagerQuest.QuestType.WORKPLACE ? "Workplace" : "Delivery");
+        graphics.drawString(this.font, "§eType: §f" + questTypeName, left + 10, top + 28, 0xFFFFFF);
+
+        if (siteMin != null) {
+            int width = siteMax.getX() - siteMin.getX() + 1;
+            int length = siteMax.getZ() - siteMin.getZ() + 1;
+            int height = siteMax.getY() - siteMin.getY() + 1;
+            graphics.drawString(this.font, "§eDimensions: §f" + width + "x" + length + "x" + height + " blocks",
+                left + 10, top + 40, 0xFFFFFF);
+        }
+
+        graphics.drawString(this.font, "§eRequired Materials:", left + 10, top + 55, 0xFFFFFF);
+        requirementList.render(graphics);
+
+        graphics.drawString(this.font, "§eReward: §a" + reward + " Emeralds", left + 10, top + 122, 0xFFFFFF);
+
+        // Directions are worked out here from the player's own position, only the villager's comes from the server
+        if (villagerPos != null) {
+            renderTarget(graphics, left + 10, top + 140, "§6Quest Villager", Vec3.atCenterOf(villagerPos));
+        } else {
+            graphics.drawString(this.font, "§c⚠ Cannot locate quest villager!", left + 28, top + 140, 0xFFFFFF);
+        }
+        if (siteMin != null) {
+            Vec3 siteCenter = new Vec3((siteMin.getX() + siteMax.getX() + 1) / 2.0, siteMin.getY(),
+                (siteMin.getZ() + siteMax.getZ() + 1) / 2.0);
+            renderTarget(graphics, left + 10, top + 158, "§6Build Site", siteCenter);
+        }
+
+        super.render(graphics, mouseX, mouseY, partialTick);
+    }
+
+    private void renderTarget(GuiGraphics graphics, int x, int y, String label, Vec3 target) {
+        Vec3 playerPos = this.minecraft.player.position();
+        double dx = target.x - playerPos.x;
+        double dz = target.z - playerPos.z;
+        int distance = (int) Math.sqrt(dx * dx + dz * dz);
+
+        // Needle points up when the target is straight ahead
+        float targetYaw = (float) (Mth.atan2(dz, dx) * Mth.RAD_TO_DEG) - 90.0F;
+        float relative = Mth.wrapDegrees(targetYaw - this.minecraft.player.getYRot());
+        renderNeedle(graphics, x + 8, y + 4, relative);
+
+        graphics.drawString(this.font, label + ": §e" + distance + " blocks " + getDirection(dx, dz), x + 18, y, 0xFFFFFF);
+    }
+
+    private void renderNeedle(GuiGraphics graphics, int centerX, int centerY, float degrees) {
+        graphics.pose().pushPose();
+        graphics.pose().translate(centerX, centerY, 0);
+        graphics.pose().mulPose(Axis.ZP.rotationDegrees(degrees));
+        graphics.fill(-1, -NEEDLE_LENGTH, 1, 0, 0xFFFF5555);
+        graphics.fill(-1, 0, 1, NEEDLE_LENGTH, 0xFF8B8B8B);
+        graphics.fill(-3, -NEEDLE_LENGTH + 2, 3, -NEEDLE_LENGTH + 3, 0xFFFF5555);
+        graphics.pose().popPose();
+    }
+
+    private static String getDirection(double dx, double dz) {
+        // Determine primary direction
+        String ns = dz > 0 ? "South" : "North";
+        String ew = dx > 0 ? "East" : "West";
+
+        // If one direction is much stronger, only show that
+        if (Math.abs(dx) > Math.abs(dz) * 2) {
+            return ew;
+        } else if (Math.abs(dz) > Math.abs(dx) * 2) {
+            return ns;
+        } else {
+            return ns + "-" + ew;
+        }
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double delta) {
+        return requirementList.mouseScrolled(mouseX, mouseY, delta) || super.mouseScrolled(mouseX, mouseY, delta);
+    }
+
+    @Override
+    public boolean isPauseScreen() {
+        return false;
+    }
+}
@@ -12,6 +12,7 @@ public class QuestCompleteScreen extends Screen {
     private final boolean successful;
     private final int reward;
     private final List<String> failureReasons;
+    private CachedTextList reasonList;
     
     private static final int WINDOW_WIDTH = 250;
     private static final int WINDOW_HEIGHT = 180;
@@ -38,6 +39,15 @@ public class QuestCompleteScreen extends Screen {
             button -> this.onClose())
             .bounds(centerX - 40, centerY + 70, 80, 20)
             .build());
+        
+        // Wrapped once here, not every frame
+        reasonList = new CachedTextList(this.font, WINDOW_WIDTH - 30, 5);
+        reasonList.setPosition(centerX - WINDOW_WIDTH / 2 + 15, centerY - WINDOW_HEIGHT / 2 + 70);
+        List<Component> rows = new ArrayList<>();
+        for (String reason : failureReasons) {
+            rows.add(Component.literal("§c• " + reason));
+        }
+        reasonList.setWrapped(rows);
     }
 
     @Override
@@ -77,46 +87,13 @@ public class QuestCompleteScreen extends Screen {
             
             graphics.drawString(this.font, "§7Issues found:", left + 10, top + 55, 0xFFFFFF);
             
-            int yOffset = 70;
-            for (String reason : failureReasons) {
-                if (yOffset > top + 130) break;
-                
-                if (this.font.width(reason) > WINDOW_WIDTH - 30) {
-                    List<String> wrapped = wrapText(reason, WINDOW_WIDTH - 30);
-                    for (String line : wrapped) {
-                        graphics.drawString(this.font, "§c• " + line, left + 15, top + yOffset, 0xFFFFFF);
-                        yOffset += 12;
-                    }
-                } else {
-                    graphics.drawString(this.font, "§c• " + reason, left + 15, top + yOffset, 0xFFFFFF);
-                    yOffset += 12;
-                }
-            }
+            reasonList.render(graphics);
         }
     }
-    
-    private List<String> wrapText(String text, int maxWidth) {
-        List<String> lines = new ArrayList<>();
-        String[] words = text.split(" ");
-        StringBuilder currentLine = new StringBuilder();
-        
-        for (String word : words) {
-            if (this.font.width(currentLine + " " + word) <= maxWidth) {
-                if (currentLine.length() > 0) currentLine.append(" ");
-                currentLine.append(word);
-            } else {
-                if (currentLine.length() > 0) {
-                    lines.add(currentLine.toString());
-                    currentLine = new StringBuilder(word);
-                } else {
-                    lines.add(word);
-                }
-            }
-        }
-        if (currentLine.length() > 0) {
-            lines.add(currentLine.toString());
-        }
-        return lines;
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double delta) {
+        return reasonList.mouseScrolled(mouseX, mouseY, delta) || super.mouseScrolled(mouseX, mouseY, delta);
     }
 
     @Override
@@ -1,13 +1,17 @@
 package com.klemp.villagerquest.client.screen;
 
+import com.klemp.villagerquest.client.BuildSiteRenderer;
 import com.klemp.villagerquest.network.CancelQuestPacket;
 import com.klemp.villagerquest.network.CheckQuestCompletionPacket;
 import com.klemp.villagerquest.network.NetworkHandler;
 import com.klemp.villagerquest.network.QuestResponsePacket;
 import com.klemp.villagerquest.network.ShareQuestPacket;
+import com.klemp.villagerquest.quest.StructureValidator;
+import com.klemp.villagerquest.quest.VillagerQuest;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.level.block.Block;
 
@@ -18,7 +22,7 @@ import java.util.UUID;
 
 public class QuestOfferScreen extends Screen {
     private final UUID villagerUUID;
-    private final String questType;
+    private final VillagerQuest.QuestType questType;
     private final Map<Block, Integer> requiredBlocks;
     private final int reward;
     private final int width;
@@ -28,11 +32,13 @@ public class QuestOfferScreen extends Screen {
     private final boolean playerHasQuest;
     private final boolean canShare;
     private final List<String> partyMembers;
+    private CachedTextList requirementList;
+    private CachedTextList partyList;
     
     private static final int WINDOW_WIDTH = 270;
     private static final int WINDOW_HEIGHT = 240;
 
-    public QuestOfferScreen(UUID villagerUUID, String questType, 
+    public QuestOfferScreen(UUID villagerUUID, VillagerQuest.QuestType questType, 
                            Map<Block, Integer> requiredBlocks, int reward,
                            int width, int length, int height,
                            boolean questTaken, boolean playerHasQuest,
@@ -59,15 +65,31 @@ public class QuestOfferScreen extends Screen {
         int screenHeight = this.minecraft.getWindow().getGuiScaledHeight();
         int centerX = screenWidth / 2;
         int centerY = screenHeight / 2;
+        int left = centerX - WINDOW_WIDTH / 2;
+        int top = centerY - WINDOW_HEIGHT / 2;
+        
+        // Names and counts only change with a new packet, so the rows are laid out here once
+        List<Component> requirementRows = new ArrayList<>();
+        for (Map.Entry<Block, Integer> entry : requiredBlocks.entrySet()) {
+            requirementRows.add(Component.literal("§f• " + entry.getValue() + "x §7" + entry.getKey().getName().getString()));
+        }
+        requirementList = new CachedTextList(this.font, WINDOW_WIDTH - 30, 5);
+        requirementList.setPosition(left + 15, top + 73);
+        requirementList.setRows(requirementRows);
+        
+        List<Component> partyRows = new ArrayList<>();
+        for (String member : partyMembers) {
+            partyRows.add(Component.literal("§7• §f" + member));
+        }
+        partyList = new CachedTextList(this.font, WINDOW_WIDTH - 30, 2);
+        partyList.setPosition(left + 15, top + 158);
+        partyList.setRows(partyRows);
         
         if (questTaken && playerHasQuest && canShare) {
             // Player has this quest - show Turn In, Share, and Cancel buttons
             this.addRenderableWidget(Button.builder(
                 Component.literal("Turn In Quest"),
-                button -> {
-                    NetworkHandler.INSTANCE.sendToServer(new CheckQuestCompletionPacket(villagerUUID));
-                    this.onClose();
-                })
+                button -> checkCompletion())
                 .bounds(centerX - 100, centerY + 60, 90, 20)
                 .build());
             
@@ -133,6 +155,24 @@ public class QuestOfferScreen extends Screen {
         }
     }
 
+    // Building checks run on the client's copy of the site first, the server is only asked when they pass
+    private void checkCompletion() {
+        if (questType != VillagerQuest.QuestType.DELIVERY && this.minecraft.level != null) {
+            BlockPos[] area = BuildSiteRenderer.getSiteArea(villagerUUID, this.minecraft.level.dimension());
+            if (area != null) {
+                VillagerQuest quest = new VillagerQuest(villagerUUID, area[0], area[1], questType, requiredBlocks, reward);
+                StructureValidator.ValidationResult prediction = StructureValidator.predict(quest, this.minecraft.level);
+                if (prediction != null && !prediction.isValid()) {
+                    this.minecraft.setScreen(new QuestCompleteScreen(false, 0, prediction.getFailureReasons()));
+                    return;
+                }
+            }
+        }
+
+        NetworkHandler.INSTANCE.sendToServer(new CheckQuestCompletionPacket(villagerUUID));
+        this.onClose();
+    }
+
     @Override
     public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         this.renderBackground(graphics);
@@ -170,53 +210,30 @@ public class QuestOfferScreen extends Screen {
         }
         
         String typeText;
-        if (questType.equals("DELIVERY")) {
+        if (questType == VillagerQuest.QuestType.DELIVERY) {
             typeText = "I need items delivered!";
-        } else if (questType.equals("PERSONAL_RESIDENCE")) {
+        } else if (questType == VillagerQuest.QuestType.PERSONAL_RESIDENCE) {
             typeText = "I need a personal home built!";
         } else {
             typeText = "I need a workplace built!";
         }
         graphics.drawCenteredString(this.font, "§e" + typeText, centerX, top + 28, 0xFFFFFF);
         
-        if (!questType.equals("DELIVERY")) {
+        if (questType != VillagerQuest.QuestType.DELIVERY) {
             graphics.drawString(this.font, "§7Dimensions:", left + 10, top + 45, 0xFFFFFF);
             graphics.drawString(this.font, "§f" + width + "x" + length + "x" + height + " blocks", 
                 left + 80, top + 45, 0xFFFFFF);
         }
         
-        graphics.drawString(this.font, questType.equals("DELIVERY") ? "§7Required Items:" : "§7Required Materials:", 
+        graphics.drawString(this.font, questType == VillagerQuest.QuestType.DELIVERY ? "§7Required Items:" : "§7Required Materials:", 
             left + 10, top + 60, 0xFFFFFF);
         
-        int yOffset = 73;
-        for (Map.Entry<Block, Integer> entry : requiredBlocks.entrySet()) {
-            String blockName = entry.getKey().getName().getString();
-            if (blockName.length() > 25) {
-                blockName = blockName.substring(0, 22) + "...";
-            }
-            String text = "§f• " + entry.getValue() + "x §7" + blockName;
-            graphics.drawString(this.font, text, left + 15, top + yOffset, 0xFFFFFF);
-            yOffset += 12;
-            
-            if (yOffset > top + 130) {
-                graphics.drawString(this.font, "§7  ... and more", left + 15, top + yOffset, 0xFFFFFF);
-                break;
-            }
-        }
+        requirementList.render(graphics);
         
         if (!partyMembers.isEmpty()) {
             graphics.drawString(this.font, "§aParty Members:", left + 10, top + 145, 0xFFFFFF);
-            int partyY = 158;
-            for (String member : partyMembers) {
-                if (partyY > top + 175) {
-                    graphics.drawString(this.font, "§7  +" + (partyMembers.size() - 2) + " more", 
-                        left + 15, top + partyY, 0xFFFFFF);
-                    break;
-                }
-                graphics.drawString(this.font, "§7• §f" + member, left + 15, top + partyY, 0xFFFFFF);
-                partyY += 12;
-            }
-        } else if (!questType.equals("DELIVERY")) {
+            partyList.render(graphics);
+        } else if (questType != VillagerQuest.QuestType.DELIVERY) {
             graphics.drawCenteredString(this.font, "§8Structure must be fully enclosed", 
                 centerX, top + 157, 0xFFFFFF);
             graphics.drawCenteredString(this.font, "§8(doors and trapdoors allowed)", 
@@ -227,6 +244,13 @@ public class QuestOfferScreen extends Screen {
             centerX, top + 182, 0xFFFFFF);
     }
 
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double delta) {
+        return requirementList.mouseScrolled(mouseX, mouseY, delta)
+            || partyList.mouseScrolled(mouseX, mouseY, delta)
+            || super.mouseScrolled(mouseX, mouseY, delta);
+    }
+
     @Override
     public boolean isPauseScreen() {
         return false;
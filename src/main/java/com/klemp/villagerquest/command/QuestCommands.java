@@ -0,0 +1,86 @@
+package com.klemp.villagerquest.command;
+
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Operator commands under /villagerquest.
+ */
+public class QuestCommands {
+    private static final String METRICS_FILE = "villagerquest-metrics.prom";
+
+    @SubscribeEvent
+    public void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("villagerquest")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("stats")
+                .executes(QuestCommands::showStats)
+                .then(Commands.literal("dump")
+                    .executes(QuestCommands::dumpStats)))
+            .then(Commands.literal("diagnostics")
+                .then(Commands.literal("dump")
+                    .executes(QuestCommands::dumpDiagnostics))));
+    }
+
+    private static int showStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal("§6Villager Quest stats:"), false);
+        for (String line : QuestMetrics.summarize(source.getServer())) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int dumpDiagnostics(CommandContext<CommandSourceStack> context) {
+        int lines = Diagnostics.dumpTrace("requested by " + context.getSource().getTextName());
+        context.getSource().sendSuccess(() -> Component.literal("§aWrote " + lines + " diagnostic trace entries to the server log"), false);
+        return lines;
+    }
+
+    // Writes the metrics in Prometheus text format next to the server, for a local scraper to pick up
+    private static int dumpStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        Path target = FMLPaths.GAMEDIR.get().resolve(METRICS_FILE);
+        Path temp = target.resolveSibling(METRICS_FILE + ".tmp");
+
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            QuestMetrics.writePrometheus(source.getServer(), out);
+        } catch (IOException e) {
+            Diagnostics.error(Subsystem.COMMANDS, "Failed to write quest metrics to {}", temp, e);
+            source.sendFailure(Component.literal("§cCould not write " + METRICS_FILE + ": " + e.getMessage()));
+            return 0;
+        }
+
+        try {
+            // Replace in one step so a scraper never reads a half written file
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Diagnostics.error(Subsystem.COMMANDS, "Failed to move quest metrics to {}", target, e);
+            source.sendFailure(Component.literal("§cCould not write " + METRICS_FILE + ": " + e.getMessage()));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("§aWrote quest metrics to " + target.toAbsolutePath()), false);
+        return 1;
+    }
+}
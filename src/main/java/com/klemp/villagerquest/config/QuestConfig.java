@@ -4,10 +4,16 @@ import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.config.ModConfig;
 
+import java.util.List;
+
 public class QuestConfig {
     public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
     public static final ForgeConfigSpec SPEC;
 
+    // Upper ends of the build size ranges, packets carrying a size reject anything larger
+    public static final int BUILD_WIDTH_LIMIT = 50;
+    public static final int BUILD_HEIGHT_LIMIT = 30;
+
     // Quest Generation Settings
     public static final ForgeConfigSpec.IntValue MIN_BUILD_WIDTH;
     public static final ForgeConfigSpec.IntValue MAX_BUILD_WIDTH;
@@ -35,6 +41,18 @@ public class QuestConfig {
     // Wandering Villager
     public static final ForgeConfigSpec.IntValue WANDERING_VILLAGER_SPAWN_CHANCE;
     public static final ForgeConfigSpec.BooleanValue ENABLE_WANDERING_VILLAGERS;
+    public static final ForgeConfigSpec.IntValue WANDERING_ACTIVATION_RANGE;
+    public static final ForgeConfigSpec.IntValue WANDERING_INACTIVE_TICK_INTERVAL;
+    
+    // Maintenance
+    public static final ForgeConfigSpec.IntValue STALE_SWEEP_INTERVAL_SECONDS;
+    public static final ForgeConfigSpec.IntValue STALE_SWEEP_BATCH_SIZE;
+    
+    // Diagnostics
+    public static final ForgeConfigSpec.ConfigValue<String> DIAGNOSTIC_LEVEL;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> DIAGNOSTIC_SUBSYSTEM_LEVELS;
+    public static final ForgeConfigSpec.IntValue DIAGNOSTIC_LOG_LINES_PER_SECOND;
+    public static final ForgeConfigSpec.IntValue DIAGNOSTIC_TRACE_SIZE;
 
     static {
         BUILDER.push("Quest Generation");
@@ -45,7 +63,7 @@ public class QuestConfig {
         
         MAX_BUILD_WIDTH = BUILDER
             .comment("Maximum width/length for building quests (in blocks)")
-            .defineInRange("maxBuildWidth", 15, 5, 50);
+            .defineInRange("maxBuildWidth", 15, 5, BUILD_WIDTH_LIMIT);
         
         MIN_BUILD_HEIGHT = BUILDER
             .comment("Minimum height for building quests (in blocks)")
@@ -53,7 +71,7 @@ public class QuestConfig {
         
         MAX_BUILD_HEIGHT = BUILDER
             .comment("Maximum height for building quests (in blocks)")
-            .defineInRange("maxBuildHeight", 10, 5, 30);
+            .defineInRange("maxBuildHeight", 10, 5, BUILD_HEIGHT_LIMIT);
         
         MIN_REQUIRED_BLOCKS = BUILDER
             .comment("Minimum number of blocks required for quests")
@@ -123,6 +141,47 @@ public class QuestConfig {
             .comment("Chance (1 in X checks) for a wandering villager to spawn per player")
             .defineInRange("wanderingVillagerSpawnChance", 100, 10, 1000);
         
+        WANDERING_ACTIVATION_RANGE = BUILDER
+            .comment("Wandering villagers further than this from every player think at a reduced rate (in blocks, 0 = always)")
+            .defineInRange("wanderingActivationRange", 64, 0, 256);
+        
+        WANDERING_INACTIVE_TICK_INTERVAL = BUILDER
+            .comment("How often the AI of a wandering villager out of activation range runs (in ticks, 0 = never), movement and physics always run")
+            .defineInRange("wanderingInactiveTickInterval", 10, 0, 100);
+        
+        BUILDER.pop();
+        
+        BUILDER.push("Maintenance");
+        
+        STALE_SWEEP_INTERVAL_SECONDS = BUILDER
+            .comment("Seconds between passes of the stale quest sweeper (removes state of villagers that no longer exist)")
+            .defineInRange("staleSweepIntervalSeconds", 300, 30, 3600);
+        
+        STALE_SWEEP_BATCH_SIZE = BUILDER
+            .comment("Maximum number of villagers the stale quest sweeper checks per tick")
+            .defineInRange("staleSweepBatchSize", 32, 1, 1024);
+        
+        BUILDER.pop();
+        
+        BUILDER.push("Diagnostics");
+        
+        DIAGNOSTIC_LEVEL = BUILDER
+            .comment("Lowest level logged by the mod's subsystems (TRACE, DEBUG, INFO, WARN, ERROR, OFF)")
+            .define("level", "INFO");
+        
+        DIAGNOSTIC_SUBSYSTEM_LEVELS = BUILDER
+            .comment("Per-subsystem overrides such as \"interaction=DEBUG\"",
+                "Subsystems: interaction, generation, markers, cleanup, sweeper, commands")
+            .defineListAllowEmpty(List.of("subsystemLevels"), List::of, entry -> entry instanceof String);
+        
+        DIAGNOSTIC_LOG_LINES_PER_SECOND = BUILDER
+            .comment("Maximum log lines per second for each subsystem, the rest only go to the trace")
+            .defineInRange("logLinesPerSecond", 20, 1, 1000);
+        
+        DIAGNOSTIC_TRACE_SIZE = BUILDER
+            .comment("Number of recent messages kept in memory and dumped on errors or with /villagerquest diagnostics dump")
+            .defineInRange("traceSize", 256, 0, 65536);
+        
         BUILDER.pop();
         
         SPEC = BUILDER.build();
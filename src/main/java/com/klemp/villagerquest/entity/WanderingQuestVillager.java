@@ -1,5 +1,6 @@
 package com.klemp.villagerquest.entity;
 
+import com.klemp.villagerquest.config.QuestConfig;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
@@ -20,9 +21,18 @@ import javax.annotation.Nullable;
 
 public class WanderingQuestVillager extends Villager {
     private static final int DESPAWN_TIME = 24000; // 20 minutes
+    private static final int ACTIVATION_CHECK_INTERVAL = 20;
+    private static final int MAX_SKIPPED_TICKS = 100; // Longest inactive tick interval the config allows
     private int ticksExisted = 0;
     private boolean hasOfferedQuest = false;
 
+    // Activation range state, not saved
+    private boolean active = true;
+    private long nextActivationCheck = 0;
+    private long despawnTimerUpdated = -1; // Game time ticksExisted was last brought up to date
+    private boolean aiThisTick = true;
+    private boolean goalsEnabled = true;
+
     public WanderingQuestVillager(EntityType<? extends Villager> type, Level level) {
         super(type, level);
         this.setVillagerData(this.getVillagerData()
@@ -41,14 +51,67 @@ public class WanderingQuestVillager extends Villager {
 
     @Override
     public void tick() {
-        super.tick();
-        
-        if (!this.level().isClientSide) {
-            ticksExisted++;
+        if (this.level() instanceof ServerLevel level) {
+            long now = level.getGameTime();
+            if (now >= nextActivationCheck) {
+                nextActivationCheck = now + ACTIVATION_CHECK_INTERVAL;
+                int range = QuestConfig.WANDERING_ACTIVATION_RANGE.get();
+                active = range == 0 || level.hasNearbyAlivePlayer(getX(), getY(), getZ(), range);
+                
+                // Also runs while frozen so far away wanderers still despawn on time
+                updateDespawnTimer(now);
+                if (this.isRemoved()) return;
+            }
+            
+            aiThisTick = active;
+            if (!active) {
+                // Skipped ticks are added to the despawn timer in bulk on the next tick the AI runs
+                int interval = QuestConfig.WANDERING_INACTIVE_TICK_INTERVAL.get();
+                aiThisTick = interval > 0 && now - despawnTimerUpdated >= interval;
+            }
             
-            if (ticksExisted >= DESPAWN_TIME) {
-                this.discard();
+            if (aiThisTick) {
+                updateDespawnTimer(now);
+                if (this.isRemoved()) return;
             }
+            setGoalsEnabled(aiThisTick);
+        }
+        
+        // Movement, gravity and collisions always run, only the brain and the goals are throttled
+        super.tick();
+    }
+
+    @Override
+    protected void customServerAiStep() {
+        if (aiThisTick) {
+            super.customServerAiStep();
+        }
+    }
+
+    // Goals whose flags are disabled are stopped and not started by the goal selector
+    private void setGoalsEnabled(boolean enabled) {
+        if (enabled == goalsEnabled) return;
+        goalsEnabled = enabled;
+        for (Goal.Flag flag : Goal.Flag.values()) {
+            if (enabled) {
+                this.goalSelector.enableControlFlag(flag);
+            } else {
+                this.goalSelector.disableControlFlag(flag);
+            }
+        }
+    }
+
+    private void updateDespawnTimer(long now) {
+        // A longer gap means the chunk stopped ticking, like before that time doesn't count
+        long elapsed = despawnTimerUpdated < 0 ? 1 : now - despawnTimerUpdated;
+        if (elapsed > MAX_SKIPPED_TICKS) {
+            elapsed = 1;
+        }
+        ticksExisted += (int) elapsed;
+        despawnTimerUpdated = now;
+        
+        if (ticksExisted >= DESPAWN_TIME) {
+            this.discard();
         }
     }
 
@@ -0,0 +1,133 @@
+package com.klemp.villagerquest.handler;
+
+import com.klemp.villagerquest.ModBlocks;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.quest.MarkerManager;
+import com.klemp.villagerquest.quest.QuestManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.*;
+
+/**
+ * Cleans up build site markers lazily as chunks load instead of searching the world.
+ * A loaded chunk is queued when it holds a site whose quest is gone, or when its block palette
+ * may contain a quest marker block placed by older versions of the mod. The queue is worked
+ * off on the server thread through the {@link TickScheduler}.
+ */
+public class MarkerCleanupHandler {
+    private static final int CHUNKS_PER_TICK = 4;
+
+    private final Map<ResourceKey<Level>, LinkedHashSet<Long>> pendingChunks = new HashMap<>();
+
+    // Called once from mod setup
+    public void schedule() {
+        TickScheduler.scheduleEveryTick("marker_cleanup", () -> CHUNKS_PER_TICK, this::cleanPendingChunks);
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        if (!(event.getChunk() instanceof LevelChunk chunk)) return;
+        if (event.isNewChunk()) return; // Freshly generated, nothing of ours in it
+
+        long chunkPos = chunk.getPos().toLong();
+        if (hasOrphanedSite(level, chunkPos) || mayContainMarkerBlock(chunk)) {
+            pendingChunks.computeIfAbsent(level.dimension(), k -> new LinkedHashSet<>()).add(chunkPos);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        pendingChunks.clear();
+    }
+
+    private void cleanPendingChunks(MinecraftServer server, int budget) {
+        for (ServerLevel level : server.getAllLevels()) {
+            LinkedHashSet<Long> pending = pendingChunks.get(level.dimension());
+            if (pending == null) continue;
+
+            Iterator<Long> iterator = pending.iterator();
+            while (budget > 0 && iterator.hasNext()) {
+                long chunkPos = iterator.next();
+                iterator.remove();
+                budget--;
+                cleanChunk(level, chunkPos);
+            }
+            if (budget <= 0) return;
+        }
+    }
+
+    private void cleanChunk(ServerLevel level, long chunkPos) {
+        MarkerManager markerManager = MarkerManager.get(level);
+        QuestManager questManager = QuestManager.get(level);
+
+        for (UUID villagerUUID : new ArrayList<>(markerManager.getSitesInChunk(chunkPos))) {
+            if (!questManager.hasActiveQuest(villagerUUID)) {
+                markerManager.removeMarkersForQuest(villagerUUID);
+            }
+        }
+
+        ChunkPos pos = new ChunkPos(chunkPos);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(pos.x, pos.z);
+        if (chunk == null || !mayContainMarkerBlock(chunk)) {
+            return; // Unloaded again before its turn
+        }
+
+        Block markerBlock = ModBlocks.QUEST_MARKER.get();
+        LevelChunkSection[] sections = chunk.getSections();
+        int removed = 0;
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section.hasOnlyAir() || !section.maybeHas(state -> state.is(markerBlock))) continue;
+
+            int baseY = chunk.getSectionYFromSectionIndex(i) << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (section.getBlockState(x, y, z).is(markerBlock)) {
+                            level.removeBlock(new BlockPos(pos.getMinBlockX() + x, baseY + y, pos.getMinBlockZ() + z), false);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (removed > 0) {
+            Diagnostics.info(Subsystem.CLEANUP, "Removed {} leftover quest marker blocks in chunk {}", removed, pos);
+        }
+    }
+
+    private boolean hasOrphanedSite(ServerLevel level, long chunkPos) {
+        QuestManager questManager = QuestManager.get(level);
+        for (UUID villagerUUID : MarkerManager.get(level).getSitesInChunk(chunkPos)) {
+            if (!questManager.hasActiveQuest(villagerUUID)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Palette check only, no block is read unless the palette has the marker state
+    private static boolean mayContainMarkerBlock(LevelChunk chunk) {
+        Block markerBlock = ModBlocks.QUEST_MARKER.get();
+        for (LevelChunkSection section : chunk.getSections()) {
+            if (!section.hasOnlyAir() && section.maybeHas(state -> state.is(markerBlock))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.klemp.villagerquest.handler;
+
+import com.klemp.villagerquest.network.NetworkHandler;
+import com.klemp.villagerquest.network.OpenQuestBookPacket;
+import com.klemp.villagerquest.network.QuestBookTargetPacket;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the compass in an open quest book pointing at the quest villager.
+ * The villager is looked up once per player every {@link #UPDATE_INTERVAL} ticks and its position
+ * is only sent when it moved at least {@link #MIN_MOVE} blocks. A book that is never reported
+ * closed stops being updated after {@link #MAX_OPEN_TICKS}. Every opening gets a new session number,
+ * so the close of a book that was replaced by a newer one doesn't stop the updates for the new one.
+ */
+public class QuestBookTracker {
+    private static final int UPDATE_INTERVAL = 10;
+    private static final int PLAYERS_PER_TICK = 8;
+    private static final int MIN_MOVE = 2;
+    private static final int MAX_OPEN_TICKS = 6000;
+
+    private static final Map<UUID, OpenBook> OPEN_BOOKS = new HashMap<>();
+    private static int lastSession;
+
+    private static final class OpenBook {
+        final int session;
+        final UUID villagerUUID;
+        final long openedAt;
+        BlockPos lastSent;
+
+        OpenBook(int session, UUID villagerUUID, long openedAt, BlockPos lastSent) {
+            this.session = session;
+            this.villagerUUID = villagerUUID;
+            this.openedAt = openedAt;
+            this.lastSent = lastSent;
+        }
+    }
+
+    // Called once from mod setup
+    public void schedule() {
+        TickScheduler.schedulePerPlayer("quest_book", () -> UPDATE_INTERVAL, () -> PLAYERS_PER_TICK, this::updateCompass);
+    }
+
+    public static void open(ServerPlayer player, VillagerQuest quest) {
+        BlockPos villagerPos = findVillagerPos(player, quest.getVillagerUUID());
+        int session = ++lastSession;
+        OPEN_BOOKS.put(player.getUUID(), new OpenBook(session, quest.getVillagerUUID(), player.server.getTickCount(), villagerPos));
+        NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), new OpenQuestBookPacket(session, quest, villagerPos));
+    }
+
+    public static void close(ServerPlayer player, int session) {
+        OpenBook book = OPEN_BOOKS.get(player.getUUID());
+        if (book != null && book.session == session) {
+            OPEN_BOOKS.remove(player.getUUID());
+        }
+    }
+
+    private void updateCompass(ServerPlayer player) {
+        OpenBook book = OPEN_BOOKS.get(player.getUUID());
+        if (book == null) return;
+
+        if (player.server.getTickCount() - book.openedAt > MAX_OPEN_TICKS) {
+            OPEN_BOOKS.remove(player.getUUID());
+            return;
+        }
+
+        BlockPos villagerPos = findVillagerPos(player, book.villagerUUID);
+        boolean moved = villagerPos == null || book.lastSent == null
+            ? villagerPos != book.lastSent
+            : villagerPos.distManhattan(book.lastSent) >= MIN_MOVE;
+        if (!moved) return;
+
+        book.lastSent = villagerPos;
+        NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), new QuestBookTargetPacket(book.session, villagerPos));
+    }
+
+    // Only villagers loaded in the player's dimension can be found
+    private static BlockPos findVillagerPos(ServerPlayer player, UUID villagerUUID) {
+        Entity entity = player.serverLevel().getEntity(villagerUUID);
+        return entity instanceof Villager villager && villager.isAlive() ? villager.blockPosition() : null;
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        OPEN_BOOKS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        OPEN_BOOKS.clear();
+    }
+}
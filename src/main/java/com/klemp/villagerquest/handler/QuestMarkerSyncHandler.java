@@ -1,89 +1,103 @@
 package com.klemp.villagerquest.handler;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
 import com.klemp.villagerquest.network.NetworkHandler;
-import com.klemp.villagerquest.network.SyncQuestMarkersPacket;
+import com.klemp.villagerquest.network.QuestMarkerUpdatePacket;
+import com.klemp.villagerquest.quest.MarkerManager;
+import com.klemp.villagerquest.quest.QuestGenerator;
 import com.klemp.villagerquest.quest.QuestManager;
+import com.klemp.villagerquest.quest.QuestMarkerState;
 import com.klemp.villagerquest.quest.VillagerQuestStatus;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.npc.Villager;
-import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.network.PacketDistributor;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Pushes quest marker state to the players tracking a villager whenever it changes,
+ * and attaches the current state when a player starts tracking one. Build site markers
+ * are sent again when a player logs in.
+ */
 public class QuestMarkerSyncHandler {
-    private int tickCounter = 0;
-    private static final int SYNC_INTERVAL = 100; // Sync every 5 seconds
 
-    @SubscribeEvent
-    public void onServerTick(TickEvent.ServerTickEvent event) {
-        if (event.phase != TickEvent.Phase.END) return;
-        
-        tickCounter++;
-        if (tickCounter < SYNC_INTERVAL) return;
-        tickCounter = 0;
+    private static final int MARKER_PUSHES_PER_TICK = 64;
+
+    // Called once from mod setup
+    public void schedule() {
+        TickScheduler.scheduleEveryTick("marker_cooldowns", () -> MARKER_PUSHES_PER_TICK, this::pushExpiredCooldowns);
+    }
 
-        for (ServerLevel level : event.getServer().getAllLevels()) {
-            VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
-            statusManager.updateQuestMarkers(level);
-            
-            // Sync to all players in this level
-            syncQuestMarkersToPlayers(level);
+    private void pushExpiredCooldowns(MinecraftServer server, int budget) {
+        // Only cooldowns that actually ended produce work here, the rest waits for the next tick
+        for (ServerLevel level : server.getAllLevels()) {
+            if (budget <= 0) return;
+            for (UUID villagerUUID : VillagerQuestStatus.get(level).pollExpiredCooldowns(budget)) {
+                pushMarkerState(level, villagerUUID);
+                budget--;
+            }
         }
     }
 
     @SubscribeEvent
-    public void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
-        if (event.getEntity() instanceof ServerPlayer player) {
-            ServerLevel level = (ServerLevel) player.level();
-            syncQuestMarkersToPlayer(level, player);
+    public void onStartTracking(PlayerEvent.StartTracking event) {
+        if (!(event.getTarget() instanceof Villager villager)) return;
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+
+        QuestMarkerState state = getMarkerState(player.serverLevel(), villager.getUUID());
+        if (state != QuestMarkerState.NONE) {
+            QuestEvents.MarkerSync event = new QuestEvents.MarkerSync();
+            event.begin();
+            NetworkHandler.INSTANCE.send(
+                PacketDistributor.PLAYER.with(() -> player),
+                new QuestMarkerUpdatePacket(villager.getId(), state)
+            );
+            event.finish(state.name(), villager.getUUID(), player);
         }
     }
 
+    // Build site markers only live on the client, send them again on every login
     @SubscribeEvent
-    public void onPlayerChangeDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+    public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
-            ServerLevel level = (ServerLevel) player.level();
-            syncQuestMarkersToPlayer(level, player);
+            MarkerManager.get(player.serverLevel()).showMarkersTo(player);
         }
     }
 
-    private void syncQuestMarkersToPlayers(ServerLevel level) {
-        for (ServerPlayer player : level.players()) {
-            syncQuestMarkersToPlayer(level, player);
+    // Call after anything that can change a villager's marker (thinking, offer, accept, reject, complete, cancel)
+    public static void pushMarkerState(ServerLevel level, UUID villagerUUID) {
+        Entity villager = level.getEntity(villagerUUID);
+        if (villager == null) {
+            return; // Not loaded, the state is attached once someone starts tracking it
         }
-    }
-
-    private void syncQuestMarkersToPlayer(ServerLevel level, ServerPlayer player) {
-        VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
-        QuestManager questManager = QuestManager.get(level);
 
-        Set<UUID> availableQuests = new HashSet<>();
-        Set<UUID> activeQuests = new HashSet<>();
+        QuestEvents.MarkerSync event = new QuestEvents.MarkerSync();
+        event.begin();
+        QuestMarkerState state = getMarkerState(level, villagerUUID);
+        NetworkHandler.INSTANCE.send(
+            PacketDistributor.TRACKING_ENTITY.with(() -> villager),
+            new QuestMarkerUpdatePacket(villager.getId(), state)
+        );
+        event.finish(state.name(), villagerUUID, null);
+    }
 
-        // Get all villagers in loaded chunks near player
-        for (Villager villager : level.getEntitiesOfClass(
-                Villager.class, 
-                player.getBoundingBox().inflate(128))) {
-            
-            UUID villagerUUID = villager.getUUID();
-            
-            if (questManager.hasActiveQuest(villagerUUID)) {
-                activeQuests.add(villagerUUID);
-            } else if (statusManager.hasQuestMarker(villagerUUID) && 
-                       statusManager.canOfferQuest(villagerUUID)) {
-                availableQuests.add(villagerUUID);
-            }
+    public static QuestMarkerState getMarkerState(ServerLevel level, UUID villagerUUID) {
+        if (QuestManager.get(level).hasActiveQuest(villagerUUID)) {
+            return QuestMarkerState.ACTIVE;
+        }
+        if (QuestGenerator.isGenerating(villagerUUID)) {
+            return QuestMarkerState.THINKING;
         }
 
-        NetworkHandler.INSTANCE.send(
-            PacketDistributor.PLAYER.with(() -> player),
-            new SyncQuestMarkersPacket(availableQuests, activeQuests)
-        );
+        VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
+        if (statusManager.hasQuestMarker(villagerUUID) && statusManager.canOfferQuest(villagerUUID)) {
+            return QuestMarkerState.AVAILABLE;
+        }
+        return QuestMarkerState.NONE;
     }
 }
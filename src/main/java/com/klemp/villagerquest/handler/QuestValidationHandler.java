@@ -19,7 +19,7 @@ public class QuestValidationHandler {
                 QuestManager questManager = QuestManager.get(serverLevel);
                 
                 if (questManager.hasActiveQuest(villager.getUUID())) {
-                    MarkerManager.removeMarkersForQuest(villager.getUUID(), serverLevel);
+                    MarkerManager.get(serverLevel).removeMarkersForQuest(villager.getUUID());
                     questManager.removeQuest(villager.getUUID());
                 }
             }
@@ -0,0 +1,115 @@
+package com.klemp.villagerquest.handler;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.*;
+
+/**
+ * Keeps a few surface spawn cells for every loaded overworld chunk, found once when the chunk loads.
+ * A cell is the first free block above the surface with a solid block under it. Sampling only looks at
+ * chunks in this index, which are loaded and fully generated, so it never causes a chunk to load.
+ */
+public class SpawnSiteSampler {
+    private static final int GRID_STEP = 4; // Columns 2, 6, 10 and 14 on each axis, 16 per chunk
+
+    // Maps ChunkPos.toLong to packed cells, see pack()
+    private static final Map<Long, IntArrayList> CELLS = new HashMap<>();
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel level) || level.dimension() != ServerLevel.OVERWORLD) return;
+        if (!(event.getChunk() instanceof LevelChunk chunk)) return;
+
+        IntArrayList cells = new IntArrayList();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int x = GRID_STEP / 2; x < 16; x += GRID_STEP) {
+            for (int z = GRID_STEP / 2; z < 16; z += GRID_STEP) {
+                int y = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x, z) + 1;
+                pos.set(chunk.getPos().getBlockX(x), y, chunk.getPos().getBlockZ(z));
+                if (isSpawnable(chunk, pos)) {
+                    cells.add(pack(x, y, z));
+                }
+            }
+        }
+        if (!cells.isEmpty()) {
+            CELLS.put(chunk.getPos().toLong(), cells);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == ServerLevel.OVERWORLD) {
+            CELLS.remove(event.getChunk().getPos().toLong());
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        CELLS.clear();
+    }
+
+    /**
+     * Picks a spawn position in a loaded chunk whose center is between minDistance and maxDistance
+     * blocks from center, or null if there is none. The picked cell is checked again since blocks may
+     * have changed after the chunk loaded; cells that went bad are dropped.
+     */
+    public static BlockPos sample(ServerLevel level, BlockPos center, int minDistance, int maxDistance, Random random) {
+        List<Long> candidates = new ArrayList<>();
+        int centerChunkX = center.getX() >> 4;
+        int centerChunkZ = center.getZ() >> 4;
+        int chunkRadius = (maxDistance >> 4) + 1;
+        for (int chunkX = centerChunkX - chunkRadius; chunkX <= centerChunkX + chunkRadius; chunkX++) {
+            for (int chunkZ = centerChunkZ - chunkRadius; chunkZ <= centerChunkZ + chunkRadius; chunkZ++) {
+                double dx = (chunkX << 4) + 8 - center.getX();
+                double dz = (chunkZ << 4) + 8 - center.getZ();
+                double distanceSqr = dx * dx + dz * dz;
+                if (distanceSqr < minDistance * minDistance || distanceSqr > maxDistance * maxDistance) continue;
+
+                long chunk = ChunkPos.asLong(chunkX, chunkZ);
+                if (CELLS.containsKey(chunk)) {
+                    candidates.add(chunk);
+                }
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            long chunkKey = candidates.remove(random.nextInt(candidates.size()));
+            IntArrayList cells = CELLS.get(chunkKey);
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            if (chunk == null) {
+                CELLS.remove(chunkKey);
+                continue;
+            }
+
+            while (!cells.isEmpty()) {
+                int index = random.nextInt(cells.size());
+                int cell = cells.getInt(index);
+                BlockPos pos = new BlockPos(chunk.getPos().getBlockX(cell >> 4 & 15), cell >> 8,
+                    chunk.getPos().getBlockZ(cell & 15));
+                if (isSpawnable(chunk, pos)) {
+                    return pos;
+                }
+                cells.removeInt(index); // Built over or dug out since the chunk loaded
+            }
+            CELLS.remove(chunkKey);
+        }
+        return null;
+    }
+
+    private static boolean isSpawnable(LevelChunk chunk, BlockPos pos) {
+        return chunk.getBlockState(pos).isAir() && chunk.getBlockState(pos.below()).isSolid();
+    }
+
+    // Local x and z in the low byte, y above it
+    private static int pack(int x, int y, int z) {
+        return y << 8 | x << 4 | z;
+    }
+}
@@ -0,0 +1,239 @@
+package com.klemp.villagerquest.handler;
+
+import com.klemp.villagerquest.config.QuestConfig;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.quest.BuildingAreaManager;
+import com.klemp.villagerquest.quest.MarkerManager;
+import com.klemp.villagerquest.quest.PlayerQuestManager;
+import com.klemp.villagerquest.quest.QuestManager;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import com.klemp.villagerquest.quest.VillagerQuestStatus;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Background sweeper that removes quest state belonging to villagers that no longer exist
+ * (despawned, converted to zombies, killed while no quest was active, ...).
+ * Each pass snapshots the villager UUIDs known to the quest managers and checks them a few
+ * per tick through the {@link TickScheduler}, so a world with thousands of rows never causes a lag spike.
+ * Villagers seen being killed or discarded are reported by {@link VillagerTrackingHandler} and reclaimed
+ * on the next tick without waiting for a pass.
+ */
+public class StaleQuestSweeper {
+    // A villager has to be missing from a loaded chunk on this many passes before it is reclaimed
+    private static final int MISSES_BEFORE_REMOVAL = 2;
+    // An offer nobody answered (screen closed with escape) is dropped after this long
+    private static final long OFFER_TIMEOUT_MS = 10 * 60 * 1000;
+
+    // Villagers whose removal was seen as it happened, keyed by level
+    private static final Map<ResourceKey<Level>, Set<UUID>> REMOVED = new HashMap<>();
+
+    private final Map<ResourceKey<Level>, SweepPass> passes = new HashMap<>();
+    private final Map<ResourceKey<Level>, Map<UUID, Integer>> missedChecks = new HashMap<>();
+
+    private static class SweepPass {
+        final ArrayDeque<UUID> pending;
+        final SweepReport report = new SweepReport();
+
+        SweepPass(Set<UUID> villagers) {
+            this.pending = new ArrayDeque<>(villagers);
+        }
+    }
+
+    private static class SweepReport {
+        int quests;
+        int areas;
+        int markers;
+        int villagerRows;
+        int playerAssignments;
+
+        boolean isEmpty() {
+            return quests == 0 && areas == 0 && markers == 0 && villagerRows == 0 && playerAssignments == 0;
+        }
+
+        @Override
+        public String toString() {
+            return quests + " quests, " + areas + " building areas, " + markers + " marker sets, " +
+                villagerRows + " villager rows, " + playerAssignments + " player assignments";
+        }
+    }
+
+    public static void villagerRemoved(ServerLevel level, UUID villagerUUID) {
+        REMOVED.computeIfAbsent(level.dimension(), k -> new LinkedHashSet<>()).add(villagerUUID);
+    }
+
+    public static void clearRemoved() {
+        REMOVED.clear();
+    }
+
+    // Called once from mod setup
+    public void schedule() {
+        TickScheduler.scheduleEveryTick("stale_sweep", QuestConfig.STALE_SWEEP_BATCH_SIZE::get, this::sweep);
+    }
+
+    private void sweep(MinecraftServer server, int budget) {
+        boolean startPass = TickScheduler.isDue(server, "stale_sweep",
+            QuestConfig.STALE_SWEEP_INTERVAL_SECONDS.get() * 20);
+
+        for (ServerLevel level : server.getAllLevels()) {
+            budget = reclaimRemoved(level, budget);
+
+            SweepPass pass = passes.get(level.dimension());
+
+            if (pass == null) {
+                if (!startPass) continue;
+                pass = new SweepPass(collectCandidates(level));
+                passes.put(level.dimension(), pass);
+            }
+
+            // The batch budget is shared by all dimensions
+            while (budget > 0 && !pass.pending.isEmpty()) {
+                checkVillager(level, pass.pending.poll(), pass.report);
+                budget--;
+            }
+
+            if (pass.pending.isEmpty()) {
+                passes.remove(level.dimension());
+                if (!pass.report.isEmpty()) {
+                    Diagnostics.info(Subsystem.SWEEPER, "Reclaimed stale quest state in {}: {}",
+                        level.dimension().location(), pass.report);
+                }
+            }
+        }
+    }
+
+    private int reclaimRemoved(ServerLevel level, int budget) {
+        Set<UUID> removed = REMOVED.get(level.dimension());
+        if (removed == null) return budget;
+
+        Map<UUID, Integer> misses = missedChecks.computeIfAbsent(level.dimension(), k -> new HashMap<>());
+        SweepReport report = new SweepReport();
+        Iterator<UUID> iterator = removed.iterator();
+        while (budget > 0 && iterator.hasNext()) {
+            UUID villagerUUID = iterator.next();
+            iterator.remove();
+            budget--;
+            misses.remove(villagerUUID);
+
+            // Back under the same UUID, e.g. a discarded copy of a villager that still exists
+            if (level.getEntity(villagerUUID) != null) continue;
+            reclaimVillager(level, villagerUUID, QuestManager.get(level).getQuestForVillager(villagerUUID), report);
+        }
+
+        if (removed.isEmpty()) {
+            REMOVED.remove(level.dimension());
+        }
+        if (!report.isEmpty()) {
+            Diagnostics.info(Subsystem.SWEEPER, "Reclaimed quest state of removed villagers in {}: {}",
+                level.dimension().location(), report);
+        }
+        return budget;
+    }
+
+    private Set<UUID> collectCandidates(ServerLevel level) {
+        Set<UUID> villagers = new HashSet<>();
+        villagers.addAll(QuestManager.get(level).getQuestVillagers());
+        villagers.addAll(VillagerQuestStatus.get(level).getTrackedVillagers());
+        villagers.addAll(BuildingAreaManager.get(level).getAreaVillagers());
+        villagers.addAll(PlayerQuestManager.get(level).getAssignedVillagers());
+        return villagers;
+    }
+
+    private void checkVillager(ServerLevel level, UUID villagerUUID, SweepReport report) {
+        QuestManager questManager = QuestManager.get(level);
+        PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
+        VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
+        VillagerQuest quest = questManager.getQuestForVillager(villagerUUID);
+
+        // Players still assigned to a quest that no longer exists
+        if (quest == null) {
+            for (UUID playerUUID : playerQuestManager.getPlayersOnQuest(villagerUUID)) {
+                playerQuestManager.completeQuest(playerUUID);
+                report.playerAssignments++;
+            }
+            // Areas reserved for offers that were rejected or cancelled
+            report.areas += BuildingAreaManager.get(level).removeAreasForVillager(villagerUUID);
+        }
+
+        Map<UUID, Integer> misses = missedChecks.computeIfAbsent(level.dimension(), k -> new HashMap<>());
+
+        Entity entity = level.getEntity(villagerUUID);
+        if (entity instanceof Villager && entity.isAlive()) {
+            statusManager.recordVillagerChunk(villagerUUID, entity.chunkPosition());
+
+            misses.remove(villagerUUID);
+
+            // An offer nobody answered (screen closed with escape) blocks the villager forever
+            if (quest != null && quest.isActive() && !quest.isCompleted() &&
+                playerQuestManager.getPlayersOnQuest(villagerUUID).isEmpty() &&
+                System.currentTimeMillis() - quest.getCreatedAt() >= OFFER_TIMEOUT_MS) {
+                questManager.removeQuest(villagerUUID);
+                QuestMarkerSyncHandler.pushMarkerState(level, villagerUUID);
+                report.areas += BuildingAreaManager.get(level).removeAreasForVillager(villagerUUID);
+                report.quests++;
+            }
+            return;
+        }
+
+        // We can only tell a villager is gone if the chunk it lives in has its entities loaded.
+        // The chunk follows the villager as it moves, see VillagerTrackingHandler
+        ChunkPos chunkPos = statusManager.getLastKnownChunk(villagerUUID);
+        if (chunkPos == null && quest != null) {
+            chunkPos = new ChunkPos(quest.getMinPos());
+        }
+        if (chunkPos == null || !level.areEntitiesLoaded(chunkPos.toLong())) {
+            return;
+        }
+
+        if (misses.merge(villagerUUID, 1, Integer::sum) < MISSES_BEFORE_REMOVAL) {
+            return;
+        }
+        misses.remove(villagerUUID);
+        reclaimVillager(level, villagerUUID, quest, report);
+    }
+
+    private void reclaimVillager(ServerLevel level, UUID villagerUUID, VillagerQuest quest, SweepReport report) {
+        PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
+
+        if (quest != null) {
+            for (UUID playerUUID : playerQuestManager.getPlayersOnQuest(villagerUUID)) {
+                ServerPlayer player = level.getServer().getPlayerList().getPlayer(playerUUID);
+                if (player != null) {
+                    player.sendSystemMessage(Component.literal("§cYour quest villager is gone. The quest has been abandoned."));
+                }
+                playerQuestManager.completeQuest(playerUUID);
+                report.playerAssignments++;
+            }
+            QuestManager.get(level).removeQuest(villagerUUID);
+            report.quests++;
+        }
+
+        if (MarkerManager.get(level).hasMarkers(villagerUUID)) {
+            MarkerManager.get(level).removeMarkersForQuest(villagerUUID);
+            report.markers++;
+        }
+
+        report.areas += BuildingAreaManager.get(level).removeAreasForVillager(villagerUUID);
+
+        if (VillagerQuestStatus.get(level).removeVillager(villagerUUID)) {
+            report.villagerRows++;
+        }
+    }
+}
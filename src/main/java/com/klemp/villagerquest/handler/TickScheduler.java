@@ -0,0 +1,118 @@
+package com.klemp.villagerquest.handler;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs the mod's periodic work from a single server tick listener.
+ * Per-player jobs hash every player into one tick of the interval, so the work is spread
+ * evenly instead of running for everyone in the same tick. Each job has a budget of
+ * runs per tick; anything over it is carried over to the following ticks.
+ */
+public class TickScheduler {
+    private static final List<PlayerJob> PLAYER_JOBS = new ArrayList<>();
+    private static final List<BudgetedJob> BUDGETED_JOBS = new ArrayList<>();
+
+    @FunctionalInterface
+    public interface BudgetedTask {
+        // Do at most budget units of work this tick
+        void run(MinecraftServer server, int budget);
+    }
+
+    private static class PlayerJob {
+        final String name;
+        final IntSupplier intervalTicks;
+        final IntSupplier budget;
+        final Consumer<ServerPlayer> task;
+        // Players whose slot came up while the budget was already used
+        final LinkedHashSet<UUID> overflow = new LinkedHashSet<>();
+
+        PlayerJob(String name, IntSupplier intervalTicks, IntSupplier budget, Consumer<ServerPlayer> task) {
+            this.name = name;
+            this.intervalTicks = intervalTicks;
+            this.budget = budget;
+            this.task = task;
+        }
+    }
+
+    private static class BudgetedJob {
+        final String name;
+        final IntSupplier budget;
+        final BudgetedTask task;
+
+        BudgetedJob(String name, IntSupplier budget, BudgetedTask task) {
+            this.name = name;
+            this.budget = budget;
+            this.task = task;
+        }
+    }
+
+    // Runs the task once per player every intervalTicks, at most budget players per tick
+    public static void schedulePerPlayer(String name, IntSupplier intervalTicks, IntSupplier budget,
+                                         Consumer<ServerPlayer> task) {
+        PLAYER_JOBS.add(new PlayerJob(name, intervalTicks, budget, task));
+    }
+
+    // Runs the task every tick, it decides itself how much of the budget to use
+    public static void scheduleEveryTick(String name, IntSupplier budget, BudgetedTask task) {
+        BUDGETED_JOBS.add(new BudgetedJob(name, budget, task));
+    }
+
+    // True on one tick per interval; the tick is offset by the job name so jobs don't line up
+    public static boolean isDue(MinecraftServer server, String name, int intervalTicks) {
+        return Math.floorMod(server.getTickCount() + name.hashCode(), Math.max(1, intervalTicks)) == 0;
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        MinecraftServer server = event.getServer();
+        for (PlayerJob job : PLAYER_JOBS) {
+            runPlayerJob(server, job);
+        }
+        for (BudgetedJob job : BUDGETED_JOBS) {
+            job.task.run(server, job.budget.getAsInt());
+        }
+    }
+
+    private void runPlayerJob(MinecraftServer server, PlayerJob job) {
+        int interval = Math.max(1, job.intervalTicks.getAsInt());
+        int bucket = Math.floorMod(server.getTickCount() + job.name.hashCode(), interval);
+
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (Math.floorMod(player.getUUID().hashCode(), interval) == bucket) {
+                job.overflow.add(player.getUUID());
+            }
+        }
+
+        int remaining = job.budget.getAsInt();
+        Iterator<UUID> pending = job.overflow.iterator();
+        while (remaining > 0 && pending.hasNext()) {
+            ServerPlayer player = server.getPlayerList().getPlayer(pending.next());
+            pending.remove();
+            if (player != null) { // Logged out while waiting
+                job.task.accept(player);
+                remaining--;
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        for (PlayerJob job : PLAYER_JOBS) {
+            job.overflow.clear();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.klemp.villagerquest.handler;
 
-import com.klemp.villagerquest.VillagerQuestMod;
-import com.klemp.villagerquest.network.NetworkHandler;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
 import com.klemp.villagerquest.network.OpenQuestOfferPacket;
+import com.klemp.villagerquest.network.QuestOfferCache;
+import com.klemp.villagerquest.quest.BuildingAreaManager;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import com.klemp.villagerquest.quest.QuestGenerator;
 import com.klemp.villagerquest.quest.QuestManager;
@@ -14,8 +16,8 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.npc.Villager;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
-import net.minecraftforge.network.PacketDistributor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,51 +28,39 @@ public class VillagerInteractionHandler {
 
     @SubscribeEvent
     public void onVillagerInteract(PlayerInteractEvent.EntityInteract event) {
-        // Debug log
-        VillagerQuestMod.LOGGER.info("Entity interact event triggered");
-        
-        if (!(event.getTarget() instanceof Villager villager)) {
-            VillagerQuestMod.LOGGER.info("Target is not a villager");
-            return;
-        }
-        
-        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
-            VillagerQuestMod.LOGGER.info("Not on server side");
-            return;
-        }
-        
-        if (!(event.getEntity() instanceof ServerPlayer player)) {
-            VillagerQuestMod.LOGGER.info("Entity is not a player");
-            return;
-        }
-
-        VillagerQuestMod.LOGGER.info("Player {} interacting with villager, sneaking: {}", 
-            player.getName().getString(), player.isShiftKeyDown());
+        // Every entity interaction in the game goes through here, bail out before doing any work
+        if (!(event.getTarget() instanceof Villager villager)) return;
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) return;
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
 
         if (player.isShiftKeyDown()) {
-            VillagerQuestMod.LOGGER.info("Player is shift-clicking!");
+            Diagnostics.debug(Subsystem.INTERACTION, "Player {} shift-clicked villager {}",
+                player.getGameProfile().getName(), villager.getUUID());
             event.setCanceled(true);
             
             QuestManager questManager = QuestManager.get(serverLevel);
             PlayerQuestManager playerQuestManager = PlayerQuestManager.get(serverLevel);
             VillagerQuestStatus statusManager = VillagerQuestStatus.get(serverLevel);
             
+            // Remember where this villager lives so the stale quest sweeper can find it later
+            statusManager.recordVillagerChunk(villager.getUUID(), villager.chunkPosition());
+            
             UUID playerQuestVillager = playerQuestManager.getActiveQuestVillager(player.getUUID());
             boolean playerHasThisQuest = playerQuestVillager != null && 
                                         playerQuestVillager.equals(villager.getUUID());
             
             // Check if player has THIS quest active
             if (playerHasThisQuest) {
-                VillagerQuestMod.LOGGER.info("Player has this villager's quest active");
+                Diagnostics.debug(Subsystem.INTERACTION, "Player has this villager's quest active");
                 VillagerQuest quest = questManager.getQuestForVillager(villager.getUUID());
                 
                 if (quest == null) {
-                    VillagerQuestMod.LOGGER.warn("Quest is null but player has it assigned!");
+                    Diagnostics.warn(Subsystem.INTERACTION, "Quest is null but player has it assigned!");
                     return;
                 }
                 
                 if (quest.isCompleted()) {
-                    VillagerQuestMod.LOGGER.info("Quest already completed");
+                    Diagnostics.debug(Subsystem.INTERACTION, "Quest already completed");
                     return;
                 }
                 
@@ -90,31 +80,29 @@ public class VillagerInteractionHandler {
                     }
                 }
                 
-                VillagerQuestMod.LOGGER.info("Opening quest turn-in screen");
-                NetworkHandler.INSTANCE.send(
-                    PacketDistributor.PLAYER.with(() -> player),
-                    new OpenQuestOfferPacket(
-                        villager.getUUID(),
-                        quest.getQuestType().name(),
+                Diagnostics.debug(Subsystem.INTERACTION, "Opening quest turn-in screen");
+                QuestOfferCache.sendOffer(player, villager.getId(),
+                    new OpenQuestOfferPacket.Details(
+                        quest.getQuestType(),
                         quest.getRequiredBlocks(),
                         quest.getRewardEmeralds(),
                         width, length, height,
-                        true, true, true, memberNames
-                    )
-                );
+                        memberNames
+                    ),
+                    true, true, true);
                 return;
             }
             
             // Check if this villager has an active quest (taken by someone)
             if (questManager.hasActiveQuest(villager.getUUID())) {
-                VillagerQuestMod.LOGGER.info("Villager has active quest but not by this player");
+                Diagnostics.debug(Subsystem.INTERACTION, "Villager has active quest but not by this player");
                 player.sendSystemMessage(Component.literal("§cThis villager's quest has already been taken by another player."));
                 return;
             }
             
             // Check if villager can offer quest
             if (!statusManager.canOfferQuest(villager.getUUID())) {
-                VillagerQuestMod.LOGGER.info("Villager is on cooldown");
+                Diagnostics.debug(Subsystem.INTERACTION, "Villager is on cooldown");
                 long remainingTime = statusManager.getTimeUntilNextQuest(villager.getUUID());
                 long minutes = (remainingTime / 1200) + 1;
                 player.sendSystemMessage(Component.literal("§7This villager has no quests available. Try again in " + minutes + " minutes."));
@@ -124,37 +112,70 @@ public class VillagerInteractionHandler {
             boolean playerHasAnyQuest = playerQuestManager.hasActiveQuest(player.getUUID());
             
             if (playerHasAnyQuest) {
-                VillagerQuestMod.LOGGER.info("Player already has a quest");
+                Diagnostics.debug(Subsystem.INTERACTION, "Player already has a quest");
                 player.sendSystemMessage(Component.literal("§cYou already have an active quest! Complete it before accepting another."));
                 return;
             }
             
-            VillagerQuestMod.LOGGER.info("Generating new quest for villager");
-            VillagerQuest newQuest = QuestGenerator.generateQuest(villager, serverLevel);
-            if (newQuest != null) {
-                questManager.addQuest(newQuest);
-                
-                BlockPos min = newQuest.getMinPos();
-                BlockPos max = newQuest.getMaxPos();
-                int width = max.getX() - min.getX() + 1;
-                int length = max.getZ() - min.getZ() + 1;
-                int height = max.getY() - min.getY() + 1;
-                
-                VillagerQuestMod.LOGGER.info("Opening quest offer screen");
-                NetworkHandler.INSTANCE.send(
-                    PacketDistributor.PLAYER.with(() -> player),
-                    new OpenQuestOfferPacket(
-                        villager.getUUID(),
-                        newQuest.getQuestType().name(),
-                        newQuest.getRequiredBlocks(),
-                        newQuest.getRewardEmeralds(),
-                        width, length, height,
-                        false, playerHasAnyQuest, false, new ArrayList<>()
-                    )
-                );
-            } else {
-                VillagerQuestMod.LOGGER.warn("Failed to generate quest!");
+            // A search for this villager is already running, for this player or someone else
+            if (QuestGenerator.isGenerating(villager.getUUID())) {
+                player.sendSystemMessage(Component.literal("§7This villager is still thinking..."));
+                return;
+            }
+            
+            Diagnostics.debug(Subsystem.INTERACTION, "Generating new quest for villager");
+            QuestGenerator.requestQuest(villager, serverLevel, newQuest -> offerQuest(player, villager, serverLevel, newQuest));
+            if (QuestGenerator.isGenerating(villager.getUUID())) {
+                // Searching the terrain for a build site, the offer follows when it is done
+                QuestMarkerSyncHandler.pushMarkerState(serverLevel, villager.getUUID());
+                player.sendSystemMessage(Component.literal("§7The villager is thinking about what they need..."));
             }
         }
     }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        QuestGenerator.clearPending();
+    }
+
+    // Runs on the server thread once generation is done, which may be a while after the click
+    private void offerQuest(ServerPlayer player, Villager villager, ServerLevel level, VillagerQuest newQuest) {
+        if (newQuest == null) {
+            QuestMarkerSyncHandler.pushMarkerState(level, villager.getUUID());
+            if (!player.hasDisconnected()) {
+                player.sendSystemMessage(Component.literal("§7This villager couldn't think of anything for you right now."));
+            }
+            return;
+        }
+        
+        // The player may have left or taken another quest while the villager was thinking
+        if (player.hasDisconnected() || !villager.isAlive() ||
+            PlayerQuestManager.get(level).hasActiveQuest(player.getUUID())) {
+            Diagnostics.debug(Subsystem.INTERACTION, "Dropping quest for villager {}, the offer is no longer wanted",
+                villager.getUUID());
+            BuildingAreaManager.get(level).removeAreasForVillager(villager.getUUID());
+            QuestMarkerSyncHandler.pushMarkerState(level, villager.getUUID());
+            return;
+        }
+        
+        QuestManager.get(level).addQuest(newQuest);
+        QuestMarkerSyncHandler.pushMarkerState(level, villager.getUUID());
+        
+        BlockPos min = newQuest.getMinPos();
+        BlockPos max = newQuest.getMaxPos();
+        int width = max.getX() - min.getX() + 1;
+        int length = max.getZ() - min.getZ() + 1;
+        int height = max.getY() - min.getY() + 1;
+        
+        Diagnostics.debug(Subsystem.INTERACTION, "Opening quest offer screen");
+        QuestOfferCache.sendOffer(player, villager.getId(),
+            new OpenQuestOfferPacket.Details(
+                newQuest.getQuestType(),
+                newQuest.getRequiredBlocks(),
+                newQuest.getRewardEmeralds(),
+                width, length, height,
+                List.of()
+            ),
+            false, false, false);
+    }
 }
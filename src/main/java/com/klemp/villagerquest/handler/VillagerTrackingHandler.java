@@ -0,0 +1,66 @@
+package com.klemp.villagerquest.handler;
+
+import com.klemp.villagerquest.quest.VillagePresenceMap;
+import com.klemp.villagerquest.quest.VillagerQuestStatus;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Follows loaded villagers through entity events: keeps the village presence map up to date and
+ * tells the stale quest sweeper where quest villagers went and which ones are gone for good.
+ */
+public class VillagerTrackingHandler {
+
+    // Lowest priority so villagers whose join was cancelled by another mod never get counted
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof Villager villager && event.getLevel() instanceof ServerLevel level) {
+            VillagePresenceMap.get(level).addVillager(villager, villager.chunkPosition().toLong());
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof Villager villager && event.getLevel() instanceof ServerLevel level) {
+            VillagePresenceMap.get(level).removeVillager(villager, villager.chunkPosition().toLong());
+
+            // Killed or discarded (despawned, converted) villagers are gone for good, anything else may come back
+            Entity.RemovalReason reason = villager.getRemovalReason();
+            if (reason != null && reason.shouldDestroy()) {
+                StaleQuestSweeper.villagerRemoved(level, villager.getUUID());
+            } else {
+                VillagerQuestStatus.get(level).updateVillagerChunk(villager.getUUID(), villager.chunkPosition());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onEnteringSection(EntityEvent.EnteringSection event) {
+        if (!event.didChunkChange()) return;
+        if (!(event.getEntity() instanceof Villager villager)) return;
+        if (!(villager.level() instanceof ServerLevel level)) return;
+
+        SectionPos oldPos = event.getOldPos();
+        SectionPos newPos = event.getNewPos();
+        long fromChunk = ChunkPos.asLong(oldPos.x(), oldPos.z());
+        long toChunk = ChunkPos.asLong(newPos.x(), newPos.z());
+        VillagePresenceMap.get(level).moveVillager(villager, fromChunk, toChunk);
+        // Lets the stale quest sweeper look for the villager where it went, not where it was last clicked
+        VillagerQuestStatus.get(level).updateVillagerChunk(villager.getUUID(), new ChunkPos(newPos.x(), newPos.z()));
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        VillagePresenceMap.clearAll();
+        StaleQuestSweeper.clearRemoved();
+    }
+}
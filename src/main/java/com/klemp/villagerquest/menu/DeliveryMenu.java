@@ -0,0 +1,165 @@
+package com.klemp.villagerquest.menu;
+
+import com.klemp.villagerquest.ModMenus;
+import com.klemp.villagerquest.network.PacketCodec;
+import com.klemp.villagerquest.quest.QuestManager;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.ContainerListener;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.SimpleMenuProvider;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.network.NetworkHooks;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivery turn-in menu. The delivery slots live on the server, so submitting only has to name
+ * the open menu and the server counts what is actually in it. Anything left in the slots goes
+ * back to the player when the menu closes.
+ */
+public class DeliveryMenu extends AbstractContainerMenu {
+    public static final int DELIVERY_SLOTS = 9; // 3x3 grid
+    private static final int PLAYER_SLOTS_START = DELIVERY_SLOTS;
+    private static final int PLAYER_SLOTS_END = PLAYER_SLOTS_START + 36;
+
+    // Slot positions inside the screen, shared with DeliveryTurnInScreen
+    public static final int GRID_X = 62;
+    public static final int GRID_Y = 50;
+    public static final int INVENTORY_Y = 122;
+
+    private final UUID villagerUUID;
+    private final Map<Block, Integer> requiredItems;
+    private final int reward;
+    private final SimpleContainer deliveryContainer = new SimpleContainer(DELIVERY_SLOTS);
+
+    // Client side, reads what openFor wrote
+    public DeliveryMenu(int containerId, Inventory playerInventory, FriendlyByteBuf buf) {
+        this(containerId, playerInventory, buf.readUUID(), PacketCodec.readBlockCounts(buf),
+            PacketCodec.readVarInt(buf, 0, Integer.MAX_VALUE, "Reward"));
+    }
+
+    public DeliveryMenu(int containerId, Inventory playerInventory, UUID villagerUUID,
+                        Map<Block, Integer> requiredItems, int reward) {
+        super(ModMenus.DELIVERY.get(), containerId);
+        this.villagerUUID = villagerUUID;
+        this.requiredItems = requiredItems;
+        this.reward = reward;
+
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                addSlot(new Slot(deliveryContainer, row * 3 + col, GRID_X + col * 18, GRID_Y + row * 18) {
+                    @Override
+                    public boolean mayPlace(ItemStack stack) {
+                        return isRequired(stack.getItem());
+                    }
+                });
+            }
+        }
+
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 9; col++) {
+                addSlot(new Slot(playerInventory, col + row * 9 + 9, 8 + col * 18, INVENTORY_Y + row * 18));
+            }
+        }
+        for (int col = 0; col < 9; col++) {
+            addSlot(new Slot(playerInventory, col, 8 + col * 18, INVENTORY_Y + 58));
+        }
+    }
+
+    public static void openFor(ServerPlayer player, VillagerQuest quest) {
+        NetworkHooks.openScreen(player, new SimpleMenuProvider(
+            (containerId, inventory, p) -> new DeliveryMenu(containerId, inventory, quest.getVillagerUUID(),
+                quest.getRequiredBlocks(), quest.getRewardEmeralds()),
+            Component.literal("Deliver Items")
+        ), buf -> {
+            buf.writeUUID(quest.getVillagerUUID());
+            PacketCodec.writeBlockCounts(buf, quest.getRequiredBlocks());
+            buf.writeVarInt(quest.getRewardEmeralds());
+        });
+    }
+
+    public UUID getVillagerUUID() { return villagerUUID; }
+    public Map<Block, Integer> getRequiredItems() { return requiredItems; }
+    public int getReward() { return reward; }
+    public Container getDeliveryContainer() { return deliveryContainer; }
+
+    // Told whenever a delivery slot changes, on the client too
+    public void addDeliveryListener(ContainerListener listener) {
+        deliveryContainer.addListener(listener);
+    }
+
+    public boolean isRequired(Item item) {
+        for (Block block : requiredItems.keySet()) {
+            if (block.asItem() == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int countDelivered(Item item) {
+        int count = 0;
+        for (int i = 0; i < deliveryContainer.getContainerSize(); i++) {
+            ItemStack stack = deliveryContainer.getItem(i);
+            if (stack.getItem() == item) {
+                count += stack.getCount();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public ItemStack quickMoveStack(Player player, int index) {
+        Slot slot = slots.get(index);
+        if (!slot.hasItem()) {
+            return ItemStack.EMPTY;
+        }
+
+        ItemStack stack = slot.getItem();
+        ItemStack original = stack.copy();
+        if (index < DELIVERY_SLOTS) {
+            if (!moveItemStackTo(stack, PLAYER_SLOTS_START, PLAYER_SLOTS_END, true)) {
+                return ItemStack.EMPTY;
+            }
+        } else if (!isRequired(stack.getItem()) || !moveItemStackTo(stack, 0, DELIVERY_SLOTS, false)) {
+            return ItemStack.EMPTY;
+        }
+
+        if (stack.isEmpty()) {
+            slot.set(ItemStack.EMPTY);
+        } else {
+            slot.setChanged();
+        }
+        return original;
+    }
+
+    // Closes by itself once the quest is completed, cancelled or taken away
+    @Override
+    public boolean stillValid(Player player) {
+        if (player.level() instanceof ServerLevel level) {
+            VillagerQuest quest = QuestManager.get(level).getQuestForVillager(villagerUUID);
+            return quest != null && !quest.isCompleted() && player.isAlive();
+        }
+        return true;
+    }
+
+    @Override
+    public void removed(Player player) {
+        super.removed(player);
+        if (player instanceof ServerPlayer) {
+            clearContainer(player, deliveryContainer);
+        }
+    }
+}
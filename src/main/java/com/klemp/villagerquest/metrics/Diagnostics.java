@@ -0,0 +1,202 @@
+package com.klemp.villagerquest.metrics;
+
+import com.klemp.villagerquest.VillagerQuestMod;
+import com.klemp.villagerquest.config.QuestConfig;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Diagnostic logging for the mod's subsystems.
+ * Every message goes into an in-memory trace ring as the raw format string and arguments; nothing
+ * is formatted until the trace is dumped, which happens on an error or through the
+ * {@code /villagerquest diagnostics dump} command. Only messages at or above the subsystem's
+ * configured level reach the log, and at most a configured number per second per subsystem.
+ * With the trace turned off, messages below the subsystem's level return before doing any work.
+ */
+public final class Diagnostics {
+    public enum Subsystem {
+        INTERACTION, GENERATION, MARKERS, CLEANUP, SWEEPER, COMMANDS;
+
+        final Logger logger = LogManager.getLogger(VillagerQuestMod.MOD_ID + "." + name().toLowerCase(Locale.ROOT));
+    }
+
+    // Indexed by ordinal and replaced as a whole on reload, so record() can read it without a lock
+    private static volatile Level[] levels = new Level[Subsystem.values().length];
+    private static final Map<Subsystem, Sampler> SAMPLERS = new EnumMap<>(Subsystem.class);
+    private static volatile int linesPerSecond = 20;
+
+    private static volatile TraceRing trace = new TraceRing(0);
+
+    // Immutable so a dump never sees a half written entry. Recording allocates one of these, and
+    // primitive arguments are already boxed by the caller
+    private record TraceEntry(long time, Level level, Subsystem subsystem, String message, Object arg0, Object arg1) {}
+
+    // Writers claim a slot with a single atomic increment instead of a lock
+    private static final class TraceRing {
+        final AtomicReferenceArray<TraceEntry> entries;
+        final AtomicLong written = new AtomicLong();
+
+        TraceRing(int size) {
+            entries = new AtomicReferenceArray<>(size);
+        }
+
+        int size() {
+            return entries.length();
+        }
+
+        void add(TraceEntry entry) {
+            long index = written.getAndIncrement();
+            entries.set((int) (index % entries.length()), entry);
+        }
+    }
+
+    // Fixed one second window per subsystem
+    private static final class Sampler {
+        long windowStart;
+        int count;
+        int suppressed;
+    }
+
+    static {
+        for (Subsystem subsystem : Subsystem.values()) {
+            levels[subsystem.ordinal()] = Level.INFO;
+            SAMPLERS.put(subsystem, new Sampler());
+        }
+        resizeTrace(256);
+    }
+
+    private Diagnostics() {}
+
+    // Called when the config is loaded or reloaded
+    public static synchronized void reloadConfig() {
+        Level defaultLevel = Level.toLevel(QuestConfig.DIAGNOSTIC_LEVEL.get(), Level.INFO);
+        Level[] configured = new Level[Subsystem.values().length];
+        Arrays.fill(configured, defaultLevel);
+
+        // Entries look like "interaction=DEBUG"
+        for (String entry : QuestConfig.DIAGNOSTIC_SUBSYSTEM_LEVELS.get()) {
+            int split = entry.indexOf('=');
+            if (split <= 0) continue;
+            try {
+                Subsystem subsystem = Subsystem.valueOf(entry.substring(0, split).trim().toUpperCase(Locale.ROOT));
+                configured[subsystem.ordinal()] = Level.toLevel(entry.substring(split + 1).trim(), defaultLevel);
+            } catch (IllegalArgumentException e) {
+                VillagerQuestMod.LOGGER.warn("Unknown diagnostics subsystem in config: {}", entry);
+            }
+        }
+
+        levels = configured;
+        linesPerSecond = QuestConfig.DIAGNOSTIC_LOG_LINES_PER_SECOND.get();
+        resizeTrace(QuestConfig.DIAGNOSTIC_TRACE_SIZE.get());
+    }
+
+    private static void resizeTrace(int size) {
+        if (trace.size() == size) return;
+        trace = new TraceRing(size);
+    }
+
+    public static void debug(Subsystem subsystem, String message) {
+        record(Level.DEBUG, subsystem, message, null, null);
+    }
+
+    public static void debug(Subsystem subsystem, String message, Object arg0) {
+        record(Level.DEBUG, subsystem, message, arg0, null);
+    }
+
+    public static void debug(Subsystem subsystem, String message, Object arg0, Object arg1) {
+        record(Level.DEBUG, subsystem, message, arg0, arg1);
+    }
+
+    public static void info(Subsystem subsystem, String message, Object arg0) {
+        record(Level.INFO, subsystem, message, arg0, null);
+    }
+
+    public static void info(Subsystem subsystem, String message, Object arg0, Object arg1) {
+        record(Level.INFO, subsystem, message, arg0, arg1);
+    }
+
+    public static void warn(Subsystem subsystem, String message) {
+        record(Level.WARN, subsystem, message, null, null);
+    }
+
+    public static void warn(Subsystem subsystem, String message, Object arg0) {
+        record(Level.WARN, subsystem, message, arg0, null);
+    }
+
+    // Errors are never sampled and dump the trace leading up to them
+    public static void error(Subsystem subsystem, String message, Object arg0, Throwable error) {
+        record(Level.ERROR, subsystem, message, arg0, null);
+        subsystem.logger.error(message, arg0, error);
+        dumpTrace("error in " + subsystem.name().toLowerCase(Locale.ROOT));
+    }
+
+    private static void record(Level level, Subsystem subsystem, String message, Object arg0, Object arg1) {
+        // Errors are logged by error() itself with their stack trace
+        boolean log = level != Level.ERROR && level.isMoreSpecificThan(levels[subsystem.ordinal()]);
+        TraceRing ring = trace;
+        if (ring.size() > 0) {
+            ring.add(new TraceEntry(System.currentTimeMillis(), level, subsystem, message, arg0, arg1));
+        }
+        if (!log) {
+            return; // Below the subsystem's level, nothing was locked or formatted
+        }
+
+        Sampler sampler = SAMPLERS.get(subsystem);
+        long now = System.currentTimeMillis();
+        int suppressed = 0;
+        boolean allowed;
+        synchronized (sampler) {
+            if (now - sampler.windowStart >= 1000) {
+                suppressed = sampler.suppressed;
+                sampler.windowStart = now;
+                sampler.count = 0;
+                sampler.suppressed = 0;
+            }
+            allowed = sampler.count++ < linesPerSecond;
+            if (!allowed) {
+                sampler.suppressed++;
+            }
+        }
+
+        if (suppressed > 0) {
+            subsystem.logger.info("Suppressed {} log lines in the last second, see the diagnostics trace", suppressed);
+        }
+        if (allowed) {
+            subsystem.logger.log(level, message, arg0, arg1);
+        }
+    }
+
+    // Oldest first
+    public static List<String> formatTrace() {
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        TraceRing ring = trace;
+        long written = ring.written.get();
+        int count = (int) Math.min(written, ring.size());
+        List<String> lines = new ArrayList<>(count);
+        for (long index = written - count; index < written; index++) {
+            TraceEntry entry = ring.entries.get((int) (index % ring.size()));
+            if (entry == null) continue; // Slot claimed but not written yet
+            lines.add(timeFormat.format(new Date(entry.time())) + " " + entry.level() + " [" +
+                entry.subsystem().name().toLowerCase(Locale.ROOT) + "] " +
+                ParameterizedMessage.format(entry.message(), new Object[]{entry.arg0(), entry.arg1()}));
+        }
+        return lines;
+    }
+
+    // Writes the trace to the log, returns the number of lines written
+    public static int dumpTrace(String reason) {
+        List<String> lines = formatTrace();
+        VillagerQuestMod.LOGGER.info("Diagnostics trace ({}), {} entries:", reason, lines.size());
+        for (String line : lines) {
+            VillagerQuestMod.LOGGER.info("  {}", line);
+        }
+        return lines.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.klemp.villagerquest.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with log-linear buckets in the style of HdrHistogram: every power of two
+ * is split into four sub-buckets, so any recorded value is reported within 25% of its real value
+ * while the whole range of a long fits in a fixed array of counters.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 2;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+
+    private final String name;
+    private final String help;
+    // Multiplier applied when exporting, e.g. 1e-9 to report nanoseconds as seconds
+    private final double scale;
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name, String help, double scale) {
+        this.name = name;
+        this.help = help;
+        this.scale = scale;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketIndex(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // Records the time since startNanos, for use with System.nanoTime()
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), 0 when empty
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i].sum();
+            if (seen >= Math.max(1, target)) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // Cumulative count of values at or below the upper bound of the given bucket
+    long cumulativeCount(int lastBucket) {
+        long seen = 0;
+        for (int i = 0; i <= lastBucket; i++) {
+            seen += counts[i].sum();
+        }
+        return seen;
+    }
+
+    int highestNonEmptyBucket() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i].sum() > 0) return i;
+        }
+        return -1;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = (index >> SUB_BITS) + SUB_BITS - 1;
+        int sub = index & (SUB_COUNT - 1);
+        long lower = (1L << exponent) + ((long) sub << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    // Buckets that end exactly at a power of two boundary, used as the exported bucket edges
+    static boolean isPowerOfTwoEdge(int index) {
+        return index < SUB_COUNT || (index & (SUB_COUNT - 1)) == SUB_COUNT - 1;
+    }
+
+    public String getName() { return name; }
+    public String getHelp() { return help; }
+    public double getScale() { return scale; }
+}
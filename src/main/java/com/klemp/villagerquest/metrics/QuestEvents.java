@@ -0,0 +1,167 @@
+package com.klemp.villagerquest.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.minecraft.world.entity.player.Player;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * Java Flight Recorder events for the quest hot paths.
+ * All events are disabled unless the recording's settings file enables them by name
+ * (e.g. {@code villagerquest.StructureValidation}), and while disabled they cost one flag check. Fields are only filled in when the event
+ * will actually be written, and the events take UUIDs and players rather than strings so nothing is converted for a disabled event.
+ */
+public final class QuestEvents {
+    private static final String CATEGORY = "Villager Quest";
+
+    private QuestEvents() {}
+
+    @Name("villagerquest.StructureValidation")
+    @Label("Structure Validation")
+    @Description("Validation of a building quest")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class StructureValidation extends Event {
+        @Label("Quest Type")
+        public String questType;
+        @Label("Volume")
+        public int volume;
+        @Label("Voxels Visited")
+        public int voxels;
+        @Label("Valid")
+        public boolean valid;
+
+        public void finish(String questType, int volume, int voxels, boolean valid) {
+            if (shouldCommit()) {
+                this.questType = questType;
+                this.volume = volume;
+                this.voxels = voxels;
+                this.valid = valid;
+                commit();
+            }
+        }
+    }
+
+    @Name("villagerquest.FloodFill")
+    @Label("Enclosure Flood Fill")
+    @Description("Flood fill from the quest furniture that checks the structure is enclosed")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class FloodFill extends Event {
+        @Label("Voxels Visited")
+        public int visited;
+        @Label("Enclosed")
+        public boolean enclosed;
+
+        public void finish(int visited, boolean enclosed) {
+            if (shouldCommit()) {
+                this.visited = visited;
+                this.enclosed = enclosed;
+                commit();
+            }
+        }
+    }
+
+    @Name("villagerquest.QuestGeneration")
+    @Label("Quest Generation")
+    @Description("Generation of a quest for a villager")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class QuestGeneration extends Event {
+        @Label("Villager")
+        public String villager;
+        @Label("Quest Type")
+        public String questType;
+        @Label("Generated")
+        public boolean generated;
+
+        public void finish(UUID villager, String questType, boolean generated) {
+            if (shouldCommit()) {
+                this.villager = villager.toString();
+                this.questType = questType;
+                this.generated = generated;
+                commit();
+            }
+        }
+    }
+
+    @Name("villagerquest.TerrainSearch")
+    @Label("Build Site Terrain Search")
+    @Description("Search for a flat, free spot near a villager for a building quest")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class TerrainSearch extends Event {
+        @Label("Attempts")
+        public int attempts;
+        @Label("Columns Checked")
+        public int columns;
+        @Label("Found")
+        public boolean found;
+
+        public void finish(int attempts, int columns, boolean found) {
+            if (shouldCommit()) {
+                this.attempts = attempts;
+                this.columns = columns;
+                this.found = found;
+                commit();
+            }
+        }
+    }
+
+    @Name("villagerquest.MarkerSync")
+    @Label("Marker Sync")
+    @Description("Quest marker or build site sent to clients")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class MarkerSync extends Event {
+        @Label("Kind")
+        public String kind;
+        @Label("Villager")
+        public String villager;
+        @Label("Player")
+        @Description("Receiving player, empty when sent to everyone tracking the villager")
+        public String player;
+
+        public void finish(String kind, UUID villager, @Nullable Player player) {
+            if (shouldCommit()) {
+                this.kind = kind;
+                this.villager = villager.toString();
+                this.player = player == null ? "" : player.getGameProfile().getName();
+                commit();
+            }
+        }
+    }
+
+    @Name("villagerquest.SavedDataSave")
+    @Label("Quest Data Save")
+    @Description("Serialization of one of the mod's SavedData files")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static class SavedDataSave extends Event {
+        @Label("Data Name")
+        public String dataName;
+        @Label("Entries")
+        public int entries;
+
+        public void finish(String dataName, int entries) {
+            if (shouldCommit()) {
+                this.dataName = dataName;
+                this.entries = entries;
+                commit();
+            }
+        }
+    }
+}
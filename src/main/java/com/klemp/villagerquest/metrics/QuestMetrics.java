@@ -0,0 +1,162 @@
+package com.klemp.villagerquest.metrics;
+
+import com.klemp.villagerquest.quest.BuildingAreaManager;
+import com.klemp.villagerquest.quest.MarkerManager;
+import com.klemp.villagerquest.quest.QuestManager;
+import com.klemp.villagerquest.quest.VillagePresenceMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Central registry of the mod's counters, histograms and gauges.
+ * Recording is lock-free and cheap enough for hot paths; gauges are only evaluated when
+ * the stats are read, so keeping them costs nothing.
+ */
+public final class QuestMetrics {
+    private static final double NANOS_TO_SECONDS = 1e-9;
+
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+    private static final List<Histogram> HISTOGRAMS = new ArrayList<>();
+    private static final Map<String, Gauge> GAUGES = new LinkedHashMap<>();
+
+    private record Gauge(String help, ToLongFunction<MinecraftServer> value) {}
+
+    // Structure validation
+    public static final Histogram VALIDATION_TIME = histogram("villagerquest_validation_seconds",
+        "Time spent validating a building quest", NANOS_TO_SECONDS);
+    public static final Histogram VALIDATION_VOXELS = histogram("villagerquest_validation_voxels",
+        "Block states read by one structure validation", 1);
+
+    // Quest generation
+    public static final Counter GENERATION_ATTEMPTS = counter("villagerquest_generation_attempts_total",
+        "Quest generation attempts");
+    public static final Counter GENERATION_FAILURES = counter("villagerquest_generation_failures_total",
+        "Quest generation attempts that produced no quest");
+    public static final Histogram GENERATION_TIME = histogram("villagerquest_generation_seconds",
+        "Time spent generating one quest", NANOS_TO_SECONDS);
+
+    // Marker sync
+    public static final Counter MARKER_PACKETS = counter("villagerquest_marker_packets_total",
+        "Quest marker and build site packets encoded");
+    public static final Counter MARKER_BYTES = counter("villagerquest_marker_bytes_total",
+        "Payload bytes of quest marker and build site packets");
+
+    // Quest offers
+    public static final Counter OFFER_PACKETS = counter("villagerquest_offer_packets_total",
+        "Quest offer screens opened for a player");
+    public static final Counter OFFER_CACHE_HITS = counter("villagerquest_offer_cache_hits_total",
+        "Quest offers sent without details because the client had them cached");
+
+    // Client requests
+    public static final Counter THROTTLED_REQUESTS = counter("villagerquest_throttled_requests_total",
+        "Client requests dropped by the per-player rate limit");
+    public static final Counter COALESCED_REQUESTS = counter("villagerquest_coalesced_requests_total",
+        "Client requests that joined a job already queued for the same target");
+
+    // Persistence
+    public static final Histogram SAVE_TIME = histogram("villagerquest_save_seconds",
+        "Time spent serializing one quest data file", NANOS_TO_SECONDS);
+
+    static {
+        gauge("villagerquest_quests", "Quests held by QuestManager in all dimensions",
+            server -> sumLevels(server, level -> QuestManager.get(level).getQuestCount()));
+        gauge("villagerquest_building_areas", "Building areas reserved in BuildingAreaManager in all dimensions",
+            server -> sumLevels(server, level -> BuildingAreaManager.get(level).getAreaCount()));
+        gauge("villagerquest_build_sites", "Build sites held by MarkerManager in all dimensions",
+            server -> sumLevels(server, level -> MarkerManager.get(level).getSiteCount()));
+        gauge("villagerquest_village_regions", "Regions with loaded villagers in the village presence map",
+            server -> sumLevels(server, level -> VillagePresenceMap.get(level).getVillageRegionCount()));
+    }
+
+    private QuestMetrics() {}
+
+    private static Counter counter(String name, String help) {
+        Counter counter = new Counter(name, help);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    private static Histogram histogram(String name, String help, double scale) {
+        Histogram histogram = new Histogram(name, help, scale);
+        HISTOGRAMS.add(histogram);
+        return histogram;
+    }
+
+    public static void gauge(String name, String help, ToLongFunction<MinecraftServer> value) {
+        GAUGES.put(name, new Gauge(help, value));
+    }
+
+    private static long sumLevels(MinecraftServer server, ToLongFunction<ServerLevel> value) {
+        long total = 0;
+        for (ServerLevel level : server.getAllLevels()) {
+            total += value.applyAsLong(level);
+        }
+        return total;
+    }
+
+    // Short human readable lines for the stats command
+    public static List<String> summarize(MinecraftServer server) {
+        List<String> lines = new ArrayList<>();
+        for (Counter counter : COUNTERS) {
+            lines.add("§7" + shortName(counter.getName()) + ": §f" + counter.get());
+        }
+        for (Histogram histogram : HISTOGRAMS) {
+            lines.add(String.format("§7%s: §fn=%d p50=%s p99=%s max=%s", shortName(histogram.getName()),
+                histogram.getCount(),
+                format(histogram, histogram.getPercentile(50)),
+                format(histogram, histogram.getPercentile(99)),
+                format(histogram, histogram.getMax())));
+        }
+        for (Map.Entry<String, Gauge> entry : GAUGES.entrySet()) {
+            lines.add("§7" + shortName(entry.getKey()) + ": §f" + entry.getValue().value().applyAsLong(server));
+        }
+        return lines;
+    }
+
+    // Prometheus text exposition format, version 0.0.4
+    public static void writePrometheus(MinecraftServer server, Writer out) throws IOException {
+        for (Counter counter : COUNTERS) {
+            writeHeader(out, counter.getName(), counter.getHelp(), "counter");
+            out.write(counter.getName() + " " + counter.get() + "\n");
+        }
+
+        for (Histogram histogram : HISTOGRAMS) {
+            writeHeader(out, histogram.getName(), histogram.getHelp(), "histogram");
+            int highest = histogram.highestNonEmptyBucket();
+            for (int i = 0; i <= highest; i++) {
+                if (!Histogram.isPowerOfTwoEdge(i) && i != highest) continue;
+                double le = Histogram.bucketUpperBound(i) * histogram.getScale();
+                out.write(histogram.getName() + "_bucket{le=\"" + le + "\"} " + histogram.cumulativeCount(i) + "\n");
+            }
+            out.write(histogram.getName() + "_bucket{le=\"+Inf\"} " + histogram.getCount() + "\n");
+            out.write(histogram.getName() + "_sum " + histogram.getSum() * histogram.getScale() + "\n");
+            out.write(histogram.getName() + "_count " + histogram.getCount() + "\n");
+        }
+
+        for (Map.Entry<String, Gauge> entry : GAUGES.entrySet()) {
+            writeHeader(out, entry.getKey(), entry.getValue().help(), "gauge");
+            out.write(entry.getKey() + " " + entry.getValue().value().applyAsLong(server) + "\n");
+        }
+    }
+
+    private static void writeHeader(Writer out, String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static String shortName(String name) {
+        return name.replace("villagerquest_", "");
+    }
+
+    private static String format(Histogram histogram, long value) {
+        if (histogram.getScale() == NANOS_TO_SECONDS) {
+            return String.format("%.2fms", value / 1_000_000.0);
+        }
+        return Long.toString(value);
+    }
+}
@@ -0,0 +1,120 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.client.BuildProgressHud;
+import com.klemp.villagerquest.client.BuildSiteRenderer;
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public class BuildSiteMarkerPacket {
+    private static final int MAX_CORNERS = 4;
+
+    private final UUID villagerUUID;
+    private final boolean visible;
+    private final ResourceKey<Level> dimension;
+    private final BlockPos min;
+    private final BlockPos max;
+    private final List<BlockPos> corners;
+    // Sent along once so the client can follow the build progress on its own
+    private final VillagerQuest.QuestType questType;
+    private final Map<Block, Integer> requiredBlocks;
+
+    private BuildSiteMarkerPacket(UUID villagerUUID, boolean visible, ResourceKey<Level> dimension,
+                                  BlockPos min, BlockPos max, List<BlockPos> corners,
+                                  VillagerQuest.QuestType questType, Map<Block, Integer> requiredBlocks) {
+        this.villagerUUID = villagerUUID;
+        this.visible = visible;
+        this.dimension = dimension;
+        this.min = min;
+        this.max = max;
+        this.corners = corners;
+        this.questType = questType;
+        this.requiredBlocks = requiredBlocks;
+    }
+
+    public static BuildSiteMarkerPacket show(UUID villagerUUID, ResourceKey<Level> dimension,
+                                             BlockPos min, BlockPos max, List<BlockPos> corners,
+                                             VillagerQuest quest) {
+        return new BuildSiteMarkerPacket(villagerUUID, true, dimension, min, max, corners,
+            quest.getQuestType(), quest.getRequiredBlocks());
+    }
+
+    public static BuildSiteMarkerPacket hide(UUID villagerUUID) {
+        return new BuildSiteMarkerPacket(villagerUUID, false, null, null, null, List.of(), null, Map.of());
+    }
+
+    public BuildSiteMarkerPacket(FriendlyByteBuf buf) {
+        this.villagerUUID = buf.readUUID();
+        this.visible = buf.readBoolean();
+        if (visible) {
+            this.dimension = buf.readResourceKey(Registries.DIMENSION);
+            this.min = buf.readBlockPos();
+            this.max = buf.readBlockPos();
+
+            int count = PacketCodec.readCount(buf, MAX_CORNERS, 8, "Corner"); // Block positions are a long each
+            this.corners = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                corners.add(buf.readBlockPos());
+            }
+            this.questType = PacketCodec.readEnum(buf, VillagerQuest.QuestType.class);
+            this.requiredBlocks = PacketCodec.readBlockCounts(buf);
+        } else {
+            this.dimension = null;
+            this.min = null;
+            this.max = null;
+            this.corners = List.of();
+            this.questType = null;
+            this.requiredBlocks = Map.of();
+        }
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        int start = buf.writerIndex();
+        buf.writeUUID(villagerUUID);
+        buf.writeBoolean(visible);
+        if (visible) {
+            buf.writeResourceKey(dimension);
+            buf.writeBlockPos(min);
+            buf.writeBlockPos(max);
+
+            buf.writeVarInt(corners.size());
+            for (BlockPos corner : corners) {
+                buf.writeBlockPos(corner);
+            }
+            buf.writeEnum(questType);
+            PacketCodec.writeBlockCounts(buf, requiredBlocks);
+        }
+        QuestMetrics.MARKER_PACKETS.increment();
+        QuestMetrics.MARKER_BYTES.add(buf.writerIndex() - start);
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() ->
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
+                if (visible) {
+                    BuildSiteRenderer.addSite(villagerUUID, dimension, min, max, corners);
+                    BuildProgressHud.track(villagerUUID, dimension, min, max, questType, requiredBlocks);
+                } else {
+                    BuildSiteRenderer.removeSite(villagerUUID);
+                    BuildProgressHud.untrack(villagerUUID);
+                }
+            })
+        );
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.klemp.villagerquest.network;
 
+import com.klemp.villagerquest.handler.QuestMarkerSyncHandler;
 import com.klemp.villagerquest.quest.MarkerManager;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import com.klemp.villagerquest.quest.QuestManager;
@@ -39,7 +40,7 @@ public class CancelQuestPacket {
                 UUID playerQuestVillager = playerQuestManager.getActiveQuestVillager(player.getUUID());
                 if (playerQuestVillager != null && playerQuestVillager.equals(villagerUUID)) {
                     // Remove markers
-                    MarkerManager.removeMarkersForQuest(villagerUUID, level);
+                    MarkerManager.get(level).removeMarkersForQuest(villagerUUID);
                     
                     // Remove quest from all party members
                     var partyMembers = playerQuestManager.getQuestParty(player.getUUID());
@@ -53,6 +54,7 @@ public class CancelQuestPacket {
                     
                     // Remove the quest from quest manager
                     questManager.removeQuest(villagerUUID);
+                    QuestMarkerSyncHandler.pushMarkerState(level, villagerUUID);
                     
                     player.sendSystemMessage(Component.literal("§7Quest cancelled."));
                 }
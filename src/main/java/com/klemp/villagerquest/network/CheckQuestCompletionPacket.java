@@ -1,6 +1,9 @@
 package com.klemp.villagerquest.network;
 
 import com.klemp.villagerquest.ModItems;
+import com.klemp.villagerquest.handler.QuestMarkerSyncHandler;
+import com.klemp.villagerquest.menu.DeliveryMenu;
+import com.klemp.villagerquest.quest.InventoryTransaction;
 import com.klemp.villagerquest.quest.MarkerManager;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import com.klemp.villagerquest.quest.QuestManager;
@@ -10,17 +13,20 @@ import com.klemp.villagerquest.quest.VillagerQuestStatus;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.TickTask;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.entity.npc.Villager;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.PacketDistributor;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -44,60 +50,31 @@ public class CheckQuestCompletionPacket {
         ctx.get().enqueueWork(() -> {
             ServerPlayer player = ctx.get().getSender();
             if (player != null) {
+                if (!RequestGovernor.tryAcquire(player, RequestGovernor.Request.CHECK_COMPLETION)) {
+                    return;
+                }
                 ServerLevel level = (ServerLevel) player.level();
                 QuestManager questManager = QuestManager.get(level);
-                PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
-                VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
                 
                 VillagerQuest quest = questManager.getQuestForVillager(villagerUUID);
                 
                 if (quest != null && quest.isActive() && !quest.isCompleted()) {
-                    if (quest.isValidationInProgress()) {
-                        player.sendSystemMessage(Component.literal("§eQuest validation is already in progress..."));
+                    // Check if it's a delivery quest - open delivery menu instead
+                    if (quest.isDeliveryQuest()) {
+                        DeliveryMenu.openFor(player, quest);
                         return;
                     }
 
-                    // Check if it's a delivery quest - open delivery screen instead
-                    if (quest.isDeliveryQuest()) {
-                        NetworkHandler.INSTANCE.send(
-                            PacketDistributor.PLAYER.with(() -> player),
-                            new OpenDeliveryScreenPacket(villagerUUID, quest.getRequiredBlocks(), quest.getRewardEmeralds())
-                        );
+                    // A party member already asked, this player gets that check's result too
+                    if (!RequestGovernor.startOrJoin(RequestGovernor.Request.CHECK_COMPLETION, villagerUUID, player)) {
+                        player.sendSystemMessage(Component.literal("§eQuest validation is already in progress..."));
                         return;
                     }
 
-                    // Building quest validation
-                    StructureValidator.ValidationResult result = 
-                        StructureValidator.validateStructureWithReasons(quest, level);
-                    
-                    if (result.isValid()) {
-                        // Find the villager
-                        Villager villager = findVillager(level, villagerUUID);
-                        if (villager == null) {
-                            player.sendSystemMessage(Component.literal("§cThe quest-giving villager could not be found!"));
-                            return;
-                        }
-
-                        // Mark validation as in progress
-                        quest.setValidationInProgress(true);
-                        
-                        // Save villager's original position
-                        BlockPos originalPos = villager.blockPosition();
-                        
-                        player.sendSystemMessage(Component.literal("§eThe villager is checking the building..."));
-                        
-                        // Start async pathfinding check
-                        level.getServer().execute(() -> {
-                            validateVillagerAccess(quest, villager, originalPos, level, questManager, 
-                                playerQuestManager, statusManager, player);
-                        });
-                    } else {
-                        // Send failure packet with reasons
-                        NetworkHandler.INSTANCE.send(
-                            PacketDistributor.PLAYER.with(() -> player),
-                            new QuestResultPacket(false, 0, result.getFailureReasons())
-                        );
-                    }
+                    // Queued behind the packets already waiting so duplicates arriving meanwhile join this check
+                    player.sendSystemMessage(Component.literal("§eThe villager is checking the building..."));
+                    MinecraftServer server = level.getServer();
+                    server.tell(new TickTask(server.getTickCount(), () -> runCheck(quest, level)));
                 }
             }
         });
@@ -105,22 +82,48 @@ public class CheckQuestCompletionPacket {
         return true;
     }
 
+    private void runCheck(VillagerQuest quest, ServerLevel level) {
+        QuestManager questManager = QuestManager.get(level);
+        PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
+        VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
+        
+        if (questManager.getQuestForVillager(villagerUUID) != quest || quest.isCompleted()) {
+            // Cancelled or completed while queued
+            RequestGovernor.finish(RequestGovernor.Request.CHECK_COMPLETION, villagerUUID);
+            return;
+        }
+
+        // Building quest validation
+        StructureValidator.ValidationResult result = 
+            StructureValidator.validateStructureWithReasons(quest, level);
+        
+        if (!result.isValid()) {
+            // Send failure packet with reasons
+            sendFailure(quest, level, result.getFailureReasons());
+            return;
+        }
+
+        // Find the villager
+        Villager villager = findVillager(level, villagerUUID);
+        if (villager == null) {
+            sendFailure(quest, level, List.of("The quest-giving villager could not be found!"));
+            return;
+        }
+
+        // Pathfinding check from the villager's current position
+        validateVillagerAccess(quest, villager, villager.blockPosition(), level, questManager, 
+            playerQuestManager, statusManager);
+    }
+
     private void validateVillagerAccess(VillagerQuest quest, Villager villager, BlockPos originalPos,
                                        ServerLevel level, QuestManager questManager, 
                                        PlayerQuestManager playerQuestManager,
-                                       VillagerQuestStatus statusManager, ServerPlayer player) {
-        BlockPos targetPos;
-        
+                                       VillagerQuestStatus statusManager) {
         // Find the bed or workstation
-        if (quest.getQuestType() == VillagerQuest.QuestType.PERSONAL_RESIDENCE) {
-            targetPos = findBedInArea(quest, level);
-        } else {
-            targetPos = findWorkstationInArea(quest, level);
-        }
+        BlockPos targetPos = StructureValidator.findFurniture(quest, level);
 
         if (targetPos == null) {
-            quest.setValidationInProgress(false);
-            player.sendSystemMessage(Component.literal("§cCould not find required furniture!"));
+            sendFailure(quest, level, List.of("Could not find required furniture!"));
             return;
         }
 
@@ -129,11 +132,7 @@ public class CheckQuestCompletionPacket {
         Path pathToTarget = navigation.createPath(targetPos, 1);
         
         if (pathToTarget == null || !pathToTarget.canReach()) {
-            quest.setValidationInProgress(false);
-            NetworkHandler.INSTANCE.send(
-                PacketDistributor.PLAYER.with(() -> player),
-                new QuestResultPacket(false, 0, java.util.List.of("The villager cannot reach the required furniture!"))
-            );
+            sendFailure(quest, level, List.of("The villager cannot reach the required furniture!"));
             return;
         }
 
@@ -141,28 +140,38 @@ public class CheckQuestCompletionPacket {
         Path pathBack = navigation.createPath(originalPos, 1);
         
         if (pathBack == null || !pathBack.canReach()) {
-            quest.setValidationInProgress(false);
-            NetworkHandler.INSTANCE.send(
-                PacketDistributor.PLAYER.with(() -> player),
-                new QuestResultPacket(false, 0, java.util.List.of("The villager cannot return from the building!"))
-            );
+            sendFailure(quest, level, List.of("The villager cannot return from the building!"));
             return;
         }
 
-        // All checks passed - complete quest
-        quest.setValidationInProgress(false);
-        completeQuest(quest, level, questManager, playerQuestManager, statusManager, player);
+        // All checks passed - complete quest, the reward reaches the whole party
+        RequestGovernor.finish(RequestGovernor.Request.CHECK_COMPLETION, villagerUUID);
+        completeQuest(quest, level, questManager, playerQuestManager, statusManager);
+    }
+
+    // Everyone on the quest sees why it failed, plus anyone who asked without being on it
+    private void sendFailure(VillagerQuest quest, ServerLevel level, List<String> reasons) {
+        Set<UUID> recipients = new HashSet<>(RequestGovernor.finish(RequestGovernor.Request.CHECK_COMPLETION, villagerUUID));
+        recipients.addAll(PlayerQuestManager.get(level).getPlayersOnQuest(villagerUUID));
+        
+        QuestResultPacket packet = new QuestResultPacket(false, 0, reasons);
+        for (UUID recipientUUID : recipients) {
+            ServerPlayer recipient = level.getServer().getPlayerList().getPlayer(recipientUUID);
+            if (recipient != null) {
+                NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> recipient), packet);
+            }
+        }
     }
 
     private void completeQuest(VillagerQuest quest, ServerLevel level, QuestManager questManager,
-                              PlayerQuestManager playerQuestManager, VillagerQuestStatus statusManager,
-                              ServerPlayer player) {
+                              PlayerQuestManager playerQuestManager, VillagerQuestStatus statusManager) {
         // Remove markers BEFORE completing quest
-        MarkerManager.removeMarkersForQuest(quest.getVillagerUUID(), level);
+        MarkerManager.get(level).removeMarkersForQuest(quest.getVillagerUUID());
         
         // Now complete the quest
         questManager.completeQuest(quest.getVillagerUUID());
         statusManager.setQuestCompleted(quest.getVillagerUUID());
+        QuestMarkerSyncHandler.pushMarkerState(level, quest.getVillagerUUID());
         
         // Get all players in the party
         Set<UUID> partyMembers = playerQuestManager.getPlayersOnQuest(quest.getVillagerUUID());
@@ -193,14 +202,10 @@ public class CheckQuestCompletionPacket {
     }
     
     private void removeQuestBookFromInventory(ServerPlayer player) {
-        // Search for quest book in inventory and remove it
-        for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
-            ItemStack stack = player.getInventory().getItem(i);
-            if (stack.getItem() == ModItems.QUEST_BOOK.get()) {
-                player.getInventory().removeItem(i, 1);
-                return; // Only remove one quest book
-            }
-        }
+        new InventoryTransaction()
+            .from(player.getInventory())
+            .takeIfPresent(ModItems.QUEST_BOOK.get(), 1)
+            .commit();
     }
 
     private Villager findVillager(ServerLevel level, UUID villagerUUID) {
@@ -212,51 +217,4 @@ public class CheckQuestCompletionPacket {
         }
         return null;
     }
-
-    private BlockPos findBedInArea(VillagerQuest quest, ServerLevel level) {
-        BlockPos min = quest.getMinPos();
-        BlockPos max = quest.getMaxPos();
-        
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    if (level.getBlockState(pos).getBlock().getName().getString().toLowerCase().contains("bed")) {
-                        return pos;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private BlockPos findWorkstationInArea(VillagerQuest quest, ServerLevel level) {
-        BlockPos min = quest.getMinPos();
-        BlockPos max = quest.getMaxPos();
-        
-        for (var entry : quest.getRequiredBlocks().entrySet()) {
-            Block requiredBlock = entry.getKey();
-            String blockName = requiredBlock.getName().getString().toLowerCase();
-            
-            // Check if this is likely a workstation
-            if (blockName.contains("table") || blockName.contains("furnace") || 
-                blockName.contains("stand") || blockName.contains("composter") ||
-                blockName.contains("barrel") || blockName.contains("loom") ||
-                blockName.contains("grindstone") || blockName.contains("lectern") ||
-                blockName.contains("cauldron") || blockName.contains("stonecutter")) {
-                
-                for (int x = min.getX(); x <= max.getX(); x++) {
-                    for (int y = min.getY(); y <= max.getY(); y++) {
-                        for (int z = min.getZ(); z <= max.getZ(); z++) {
-                            BlockPos pos = new BlockPos(x, y, z);
-                            if (level.getBlockState(pos).getBlock() == requiredBlock) {
-                                return pos;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return null;
-    }
 }
@@ -0,0 +1,37 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.handler.QuestBookTracker;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+// Tells the server the quest book screen was closed so it stops sending the villager's position
+public class CloseQuestBookPacket {
+    // Session of the closed book, a close for an older book arriving after a newer one opened is ignored
+    private final int session;
+
+    public CloseQuestBookPacket(int session) {
+        this.session = session;
+    }
+
+    public CloseQuestBookPacket(FriendlyByteBuf buf) {
+        this.session = buf.readVarInt();
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeVarInt(session);
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            ServerPlayer player = ctx.get().getSender();
+            if (player != null) {
+                QuestBookTracker.close(player, session);
+            }
+        });
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
@@ -7,7 +7,12 @@ import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.simple.SimpleChannel;
 
 public class NetworkHandler {
-    private static final String PROTOCOL_VERSION = "1";
+    // Version 2 switched every packet to the compact PacketCodec encoding, 3 added the thinking marker,
+    // 4 moved deliveries to a container menu, 5 sends the quest requirements with the build site,
+    // 6 lets quest offers refer to details the client has cached, 7 added the quest book screen
+    // 8 sends offer detail versions as a varint, 9 numbers quest book sessions and 10 lets the
+    // client ask for offer details missing from its cache
+    private static final String PROTOCOL_VERSION = "10";
     public static final SimpleChannel INSTANCE = NetworkRegistry.newSimpleChannel(
         new ResourceLocation(VillagerQuestMod.MOD_ID, "main"),
         () -> PROTOCOL_VERSION,
@@ -23,58 +28,82 @@ public class NetworkHandler {
     public static void register() {
         // Client to Server packets
         INSTANCE.messageBuilder(QuestResponsePacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
-            .decoder(QuestResponsePacket::new)
+            .decoder(PacketCodec.decoder(QuestResponsePacket::new))
             .encoder(QuestResponsePacket::toBytes)
             .consumerMainThread(QuestResponsePacket::handle)
             .add();
 
         INSTANCE.messageBuilder(CheckQuestCompletionPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
-            .decoder(CheckQuestCompletionPacket::new)
+            .decoder(PacketCodec.decoder(CheckQuestCompletionPacket::new))
             .encoder(CheckQuestCompletionPacket::toBytes)
             .consumerMainThread(CheckQuestCompletionPacket::handle)
             .add();
 
         INSTANCE.messageBuilder(ShareQuestPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
-            .decoder(ShareQuestPacket::new)
+            .decoder(PacketCodec.decoder(ShareQuestPacket::new))
             .encoder(ShareQuestPacket::toBytes)
             .consumerMainThread(ShareQuestPacket::handle)
             .add();
 
         INSTANCE.messageBuilder(CancelQuestPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
-            .decoder(CancelQuestPacket::new)
+            .decoder(PacketCodec.decoder(CancelQuestPacket::new))
             .encoder(CancelQuestPacket::toBytes)
             .consumerMainThread(CancelQuestPacket::handle)
             .add();
 
         INSTANCE.messageBuilder(SubmitDeliveryPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
-            .decoder(SubmitDeliveryPacket::new)
+            .decoder(PacketCodec.decoder(SubmitDeliveryPacket::new))
             .encoder(SubmitDeliveryPacket::toBytes)
             .consumerMainThread(SubmitDeliveryPacket::handle)
             .add();
 
+        INSTANCE.messageBuilder(CloseQuestBookPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
+            .decoder(PacketCodec.decoder(CloseQuestBookPacket::new))
+            .encoder(CloseQuestBookPacket::toBytes)
+            .consumerMainThread(CloseQuestBookPacket::handle)
+            .add();
+
+        INSTANCE.messageBuilder(RequestOfferDetailsPacket.class, id(), NetworkDirection.PLAY_TO_SERVER)
+            .decoder(PacketCodec.decoder(RequestOfferDetailsPacket::new))
+            .encoder(RequestOfferDetailsPacket::toBytes)
+            .consumerMainThread(RequestOfferDetailsPacket::handle)
+            .add();
+
         // Server to Client packets
         INSTANCE.messageBuilder(OpenQuestOfferPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-            .decoder(OpenQuestOfferPacket::new)
+            .decoder(PacketCodec.decoder(OpenQuestOfferPacket::new))
             .encoder(OpenQuestOfferPacket::toBytes)
             .consumerMainThread(OpenQuestOfferPacket::handle)
             .add();
 
         INSTANCE.messageBuilder(QuestResultPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-            .decoder(QuestResultPacket::new)
+            .decoder(PacketCodec.decoder(QuestResultPacket::new))
             .encoder(QuestResultPacket::toBytes)
             .consumerMainThread(QuestResultPacket::handle)
             .add();
 
-        INSTANCE.messageBuilder(SyncQuestMarkersPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-            .decoder(SyncQuestMarkersPacket::new)
-            .encoder(SyncQuestMarkersPacket::toBytes)
-            .consumerMainThread(SyncQuestMarkersPacket::handle)
+        INSTANCE.messageBuilder(QuestMarkerUpdatePacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(PacketCodec.decoder(QuestMarkerUpdatePacket::new))
+            .encoder(QuestMarkerUpdatePacket::toBytes)
+            .consumerMainThread(QuestMarkerUpdatePacket::handle)
+            .add();
+
+        INSTANCE.messageBuilder(BuildSiteMarkerPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(PacketCodec.decoder(BuildSiteMarkerPacket::new))
+            .encoder(BuildSiteMarkerPacket::toBytes)
+            .consumerMainThread(BuildSiteMarkerPacket::handle)
+            .add();
+
+        INSTANCE.messageBuilder(OpenQuestBookPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(PacketCodec.decoder(OpenQuestBookPacket::new))
+            .encoder(OpenQuestBookPacket::toBytes)
+            .consumerMainThread(OpenQuestBookPacket::handle)
             .add();
 
-        INSTANCE.messageBuilder(OpenDeliveryScreenPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-            .decoder(OpenDeliveryScreenPacket::new)
-            .encoder(OpenDeliveryScreenPacket::toBytes)
-            .consumerMainThread(OpenDeliveryScreenPacket::handle)
+        INSTANCE.messageBuilder(QuestBookTargetPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(PacketCodec.decoder(QuestBookTargetPacket::new))
+            .encoder(QuestBookTargetPacket::toBytes)
+            .consumerMainThread(QuestBookTargetPacket::handle)
             .add();
     }
 }
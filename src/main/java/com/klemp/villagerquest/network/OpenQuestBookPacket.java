@@ -0,0 +1,78 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.client.screen.QuestBookScreen;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Everything the quest book shows, the villager's position follows in QuestBookTargetPacket while it is open
+public class OpenQuestBookPacket {
+    // Numbers this opening, later packets about the book carry it so a book opened since can tell them apart
+    private final int session;
+    private final VillagerQuest.QuestType questType;
+    private final Map<Block, Integer> requiredBlocks;
+    private final int reward;
+    // Null for delivery quests
+    private final BlockPos siteMin;
+    private final BlockPos siteMax;
+    // Null if the villager is not loaded
+    private final BlockPos villagerPos;
+
+    public OpenQuestBookPacket(int session, VillagerQuest quest, BlockPos villagerPos) {
+        this.session = session;
+        this.questType = quest.getQuestType();
+        this.requiredBlocks = quest.getRequiredBlocks();
+        this.reward = quest.getRewardEmeralds();
+        this.siteMin = quest.isDeliveryQuest() ? null : quest.getMinPos();
+        this.siteMax = quest.isDeliveryQuest() ? null : quest.getMaxPos();
+        this.villagerPos = villagerPos;
+    }
+
+    public OpenQuestBookPacket(FriendlyByteBuf buf) {
+        this.session = buf.readVarInt();
+        this.questType = PacketCodec.readEnum(buf, VillagerQuest.QuestType.class);
+        this.requiredBlocks = PacketCodec.readBlockCounts(buf);
+        this.reward = PacketCodec.readVarInt(buf, 0, Integer.MAX_VALUE, "Reward");
+
+        byte flags = buf.readByte();
+        this.siteMin = PacketCodec.hasFlag(flags, 0) ? buf.readBlockPos() : null;
+        this.siteMax = PacketCodec.hasFlag(flags, 0) ? buf.readBlockPos() : null;
+        this.villagerPos = PacketCodec.hasFlag(flags, 1) ? buf.readBlockPos() : null;
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeVarInt(session);
+        buf.writeEnum(questType);
+        PacketCodec.writeBlockCounts(buf, requiredBlocks);
+        buf.writeVarInt(reward);
+
+        PacketCodec.writeFlags(buf, siteMin != null, villagerPos != null);
+        if (siteMin != null) {
+            buf.writeBlockPos(siteMin);
+            buf.writeBlockPos(siteMax);
+        }
+        if (villagerPos != null) {
+            buf.writeBlockPos(villagerPos);
+        }
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() ->
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () ->
+                Minecraft.getInstance().setScreen(new QuestBookScreen(
+                    session, questType, requiredBlocks, reward, siteMin, siteMax, villagerPos
+                ))
+            )
+        );
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
@@ -1,114 +1,126 @@
 package com.klemp.villagerquest.network;
 
+import com.klemp.villagerquest.client.QuestDetailCache;
 import com.klemp.villagerquest.client.screen.QuestOfferScreen;
+import com.klemp.villagerquest.config.QuestConfig;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.quest.VillagerQuest;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.block.Block;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.fml.DistExecutor;
 import net.minecraftforge.network.NetworkEvent;
-import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.function.Supplier;
 
+// Opens the quest screen; the details are left out when the client already has this version of them
 public class OpenQuestOfferPacket {
-    private final UUID villagerUUID;
-    private final String questType;
-    private final Map<Block, Integer> requiredBlocks;
-    private final int reward;
-    private final int width;
-    private final int length;
-    private final int height;
+    /**
+     * The part of an offer that stays the same between clicks. {@link QuestOfferCache} numbers every
+     * different set of details it sends, so any change to the quest or its party gives a new version.
+     */
+    public record Details(VillagerQuest.QuestType questType, Map<Block, Integer> requiredBlocks, int reward,
+                          int width, int length, int height, List<String> partyMembers) {
+        // Both caches hold on to these, a version must not change after it was handed out
+        public Details {
+            requiredBlocks = Map.copyOf(requiredBlocks);
+            partyMembers = List.copyOf(partyMembers);
+        }
+    }
+
+    // Network id of the villager the player just interacted with
+    private final int villagerId;
+    private final int version;
     private final boolean questTaken;
     private final boolean playerHasQuest;
     private final boolean canShare;
-    private final List<String> partyMembers;
+    // Null when the client has this version cached
+    private final Details details;
 
-    public OpenQuestOfferPacket(UUID villagerUUID, String questType, 
-                               Map<Block, Integer> requiredBlocks, int reward,
-                               int width, int length, int height,
-                               boolean questTaken, boolean playerHasQuest,
-                               boolean canShare, List<String> partyMembers) {
-        this.villagerUUID = villagerUUID;
-        this.questType = questType;
-        this.requiredBlocks = requiredBlocks;
-        this.reward = reward;
-        this.width = width;
-        this.length = length;
-        this.height = height;
+    public OpenQuestOfferPacket(int villagerId, int version, boolean questTaken, boolean playerHasQuest,
+                                boolean canShare, Details details) {
+        this.villagerId = villagerId;
+        this.version = version;
         this.questTaken = questTaken;
         this.playerHasQuest = playerHasQuest;
         this.canShare = canShare;
-        this.partyMembers = partyMembers != null ? partyMembers : new ArrayList<>();
+        this.details = details;
     }
 
     public OpenQuestOfferPacket(FriendlyByteBuf buf) {
-        this.villagerUUID = buf.readUUID();
-        this.questType = buf.readUtf();
-        
-        int blockCount = buf.readInt();
-        this.requiredBlocks = new HashMap<>();
-        for (int i = 0; i < blockCount; i++) {
-            Block block = buf.readRegistryIdUnsafe(ForgeRegistries.BLOCKS);
-            int count = buf.readInt();
-            requiredBlocks.put(block, count);
-        }
-        
-        this.reward = buf.readInt();
-        this.width = buf.readInt();
-        this.length = buf.readInt();
-        this.height = buf.readInt();
-        this.questTaken = buf.readBoolean();
-        this.playerHasQuest = buf.readBoolean();
-        this.canShare = buf.readBoolean();
-        
-        int partySize = buf.readInt();
-        this.partyMembers = new ArrayList<>();
-        for (int i = 0; i < partySize; i++) {
-            partyMembers.add(buf.readUtf());
+        this.villagerId = buf.readVarInt();
+        this.version = buf.readVarInt();
+
+        byte flags = buf.readByte();
+        this.questTaken = PacketCodec.hasFlag(flags, 0);
+        this.playerHasQuest = PacketCodec.hasFlag(flags, 1);
+        this.canShare = PacketCodec.hasFlag(flags, 2);
+
+        if (PacketCodec.hasFlag(flags, 3)) {
+            this.details = new Details(
+                PacketCodec.readEnum(buf, VillagerQuest.QuestType.class),
+                PacketCodec.readBlockCounts(buf),
+                PacketCodec.readVarInt(buf, 0, Integer.MAX_VALUE, "Reward"),
+                PacketCodec.readVarInt(buf, 0, QuestConfig.BUILD_WIDTH_LIMIT, "Width"),
+                PacketCodec.readVarInt(buf, 0, QuestConfig.BUILD_WIDTH_LIMIT, "Length"),
+                PacketCodec.readVarInt(buf, 0, QuestConfig.BUILD_HEIGHT_LIMIT, "Height"),
+                PacketCodec.readStrings(buf)
+            );
+        } else {
+            this.details = null;
         }
     }
 
     public void toBytes(FriendlyByteBuf buf) {
-        buf.writeUUID(villagerUUID);
-        buf.writeUtf(questType);
-        
-        buf.writeInt(requiredBlocks.size());
-        for (Map.Entry<Block, Integer> entry : requiredBlocks.entrySet()) {
-            buf.writeRegistryIdUnsafe(ForgeRegistries.BLOCKS, entry.getKey());
-            buf.writeInt(entry.getValue());
-        }
-        
-        buf.writeInt(reward);
-        buf.writeInt(width);
-        buf.writeInt(length);
-        buf.writeInt(height);
-        buf.writeBoolean(questTaken);
-        buf.writeBoolean(playerHasQuest);
-        buf.writeBoolean(canShare);
-        
-        buf.writeInt(partyMembers.size());
-        for (String member : partyMembers) {
-            buf.writeUtf(member);
+        buf.writeVarInt(villagerId);
+        buf.writeVarInt(version);
+        PacketCodec.writeFlags(buf, questTaken, playerHasQuest, canShare, details != null);
+        if (details != null) {
+            buf.writeEnum(details.questType());
+            PacketCodec.writeBlockCounts(buf, details.requiredBlocks());
+            buf.writeVarInt(details.reward());
+            buf.writeVarInt(details.width());
+            buf.writeVarInt(details.length());
+            buf.writeVarInt(details.height());
+            PacketCodec.writeStrings(buf, details.partyMembers());
         }
     }
 
     public boolean handle(Supplier<NetworkEvent.Context> ctx) {
         ctx.get().enqueueWork(() -> 
             DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
-                Minecraft.getInstance().setScreen(new QuestOfferScreen(
-                    villagerUUID, questType, requiredBlocks, reward, 
-                    width, length, height, questTaken, playerHasQuest, 
-                    canShare, partyMembers
+                // Before anything else, the cache has to see every offer to stay in step with the server
+                Details offer = details != null
+                    ? QuestDetailCache.put(villagerId, version, details)
+                    : QuestDetailCache.get(villagerId, version);
+                if (offer == null) {
+                    // Out of step with the server, the screen opens once the full details arrive
+                    Diagnostics.debug(Subsystem.INTERACTION, "No cached details for villager {} at version {}", villagerId, version);
+                    NetworkHandler.INSTANCE.sendToServer(
+                        new RequestOfferDetailsPacket(villagerId, version, questTaken, playerHasQuest, canShare));
+                    return;
+                }
+
+                Minecraft mc = Minecraft.getInstance();
+                Entity villager = mc.level != null ? mc.level.getEntity(villagerId) : null;
+                if (villager == null) {
+                    return; // Villager left tracking range before the offer arrived
+                }
+                
+                mc.setScreen(new QuestOfferScreen(
+                    villager.getUUID(), offer.questType(), offer.requiredBlocks(), offer.reward(),
+                    offer.width(), offer.length(), offer.height(), questTaken, playerHasQuest,
+                    canShare, new ArrayList<>(offer.partyMembers())
                 ));
             })
         );
         ctx.get().setPacketHandled(true);
         return true;
     }
-}
\ No newline at end of file
+}
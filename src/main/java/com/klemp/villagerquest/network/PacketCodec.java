@@ -0,0 +1,148 @@
+package com.klemp.villagerquest.network;
+
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import net.minecraft.ResourceLocationException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.ForgeRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared encoding helpers for protocol version 2. Counts and numbers are varints,
+ * blocks are registry ids and booleans are packed into a single flag byte.
+ * <p>
+ * Every count read off the wire is checked against a per-field maximum and against the bytes
+ * actually left in the buffer before anything is allocated for it. A packet that breaks a limit
+ * throws a {@link DecoderException}, which drops the connection that sent it.
+ */
+public final class PacketCodec {
+    public static final int MAX_BLOCK_TYPES = 32;
+    public static final int MAX_STRINGS = 32;
+    public static final int MAX_STRING_LENGTH = 256;
+
+    private PacketCodec() {
+    }
+
+    /**
+     * Wraps a packet decoder so a malformed packet always fails with a {@link DecoderException}.
+     * FriendlyByteBuf throws a bare RuntimeException for varints longer than five bytes and
+     * ResourceLocationException for malformed ids; anything else is a bug and passes through.
+     */
+    public static <T> Function<FriendlyByteBuf, T> decoder(Function<FriendlyByteBuf, T> decoder) {
+        return buf -> {
+            try {
+                return decoder.apply(buf);
+            } catch (ResourceLocationException e) {
+                throw new DecoderException(e.getMessage(), e);
+            } catch (RuntimeException e) {
+                if (e.getClass() == RuntimeException.class) {
+                    throw new DecoderException(e.getMessage(), e);
+                }
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Reads a count and rejects it if it is negative, above {@code max}, or larger than the rest of
+     * the buffer could hold when every entry takes at least {@code minEntryBytes}.
+     */
+    public static int readCount(FriendlyByteBuf buf, int max, int minEntryBytes, String field) {
+        int count = buf.readVarInt();
+        if (count < 0 || count > max) {
+            throw new DecoderException(field + " count " + count + " is outside 0.." + max);
+        }
+        if ((long) count * minEntryBytes > buf.readableBytes()) {
+            throw new DecoderException(field + " count " + count + " doesn't fit in the " +
+                buf.readableBytes() + " bytes left");
+        }
+        return count;
+    }
+
+    public static int readVarInt(FriendlyByteBuf buf, int min, int max, String field) {
+        int value = buf.readVarInt();
+        if (value < min || value > max) {
+            throw new DecoderException(field + " " + value + " is outside " + min + ".." + max);
+        }
+        return value;
+    }
+
+    // FriendlyByteBuf.readEnum throws an index exception for unknown ordinals
+    public static <T extends Enum<T>> T readEnum(FriendlyByteBuf buf, Class<T> type) {
+        T[] values = type.getEnumConstants();
+        return values[readVarInt(buf, 0, values.length - 1, type.getSimpleName())];
+    }
+
+    public static void writeBlockCounts(FriendlyByteBuf buf, Map<Block, Integer> counts) {
+        if (counts.size() > MAX_BLOCK_TYPES) {
+            throw new EncoderException("Too many block types: " + counts.size());
+        }
+        buf.writeVarInt(counts.size());
+        for (Map.Entry<Block, Integer> entry : counts.entrySet()) {
+            buf.writeRegistryIdUnsafe(ForgeRegistries.BLOCKS, entry.getKey());
+            buf.writeVarInt(entry.getValue());
+        }
+    }
+
+    public static Map<Block, Integer> readBlockCounts(FriendlyByteBuf buf) {
+        int size = readCount(buf, MAX_BLOCK_TYPES, 2, "Block type"); // Registry id and amount, a byte each at least
+        Map<Block, Integer> counts = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            counts.put(readBlock(buf), readVarInt(buf, 0, Integer.MAX_VALUE, "Block amount"));
+        }
+        return counts;
+    }
+
+    // The registry hands out its default, air, for ids it doesn't know, and no quest ever asks for air
+    private static Block readBlock(FriendlyByteBuf buf) {
+        int id = buf.readVarInt();
+        Block block = ((ForgeRegistry<Block>) ForgeRegistries.BLOCKS).getValue(id);
+        if (block == null || block == Blocks.AIR) {
+            throw new DecoderException("Unknown block id " + id);
+        }
+        return block;
+    }
+
+    // Lists longer than MAX_STRINGS are cut off and long strings shortened, the reader would reject them
+    public static void writeStrings(FriendlyByteBuf buf, List<String> strings) {
+        int size = Math.min(strings.size(), MAX_STRINGS);
+        buf.writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            String string = strings.get(i);
+            buf.writeUtf(string.length() > MAX_STRING_LENGTH ? string.substring(0, MAX_STRING_LENGTH) : string,
+                MAX_STRING_LENGTH);
+        }
+    }
+
+    public static List<String> readStrings(FriendlyByteBuf buf) {
+        int size = readCount(buf, MAX_STRINGS, 1, "String"); // Length prefix, a byte at least
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(buf.readUtf(MAX_STRING_LENGTH));
+        }
+        return strings;
+    }
+
+    // Packs up to eight booleans into one byte, first argument in the lowest bit
+    public static void writeFlags(FriendlyByteBuf buf, boolean... flags) {
+        int packed = 0;
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i]) {
+                packed |= 1 << i;
+            }
+        }
+        buf.writeByte(packed);
+    }
+
+    public static boolean hasFlag(byte flags, int index) {
+        return (flags & (1 << index)) != 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.client.screen.QuestBookScreen;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+// New position of the quest villager for an open quest book, null once it can't be found
+public class QuestBookTargetPacket {
+    private final int session;
+    private final BlockPos villagerPos;
+
+    public QuestBookTargetPacket(int session, BlockPos villagerPos) {
+        this.session = session;
+        this.villagerPos = villagerPos;
+    }
+
+    public QuestBookTargetPacket(FriendlyByteBuf buf) {
+        this.session = buf.readVarInt();
+        this.villagerPos = buf.readBoolean() ? buf.readBlockPos() : null;
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeVarInt(session);
+        buf.writeBoolean(villagerPos != null);
+        if (villagerPos != null) {
+            buf.writeBlockPos(villagerPos);
+        }
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() ->
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
+                if (Minecraft.getInstance().screen instanceof QuestBookScreen screen && screen.getSession() == session) {
+                    screen.setVillagerPos(villagerPos);
+                }
+            })
+        );
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.client.VillagerRenderHandler;
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import com.klemp.villagerquest.quest.QuestMarkerState;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+public class QuestMarkerUpdatePacket {
+    // Network id of the villager, the client is always tracking it when this is sent
+    private final int villagerId;
+    private final QuestMarkerState state;
+
+    public QuestMarkerUpdatePacket(int villagerId, QuestMarkerState state) {
+        this.villagerId = villagerId;
+        this.state = state;
+    }
+
+    public QuestMarkerUpdatePacket(FriendlyByteBuf buf) {
+        this.villagerId = buf.readVarInt();
+        this.state = PacketCodec.readEnum(buf, QuestMarkerState.class);
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        int start = buf.writerIndex();
+        buf.writeVarInt(villagerId);
+        buf.writeEnum(state);
+        QuestMetrics.MARKER_PACKETS.increment();
+        QuestMetrics.MARKER_BYTES.add(buf.writerIndex() - start);
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() ->
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () ->
+                VillagerRenderHandler.setMarkerState(villagerId, state)
+            )
+        );
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.*;
+
+/**
+ * Remembers which version of each villager's offer details a player's client holds, so repeated
+ * clicks only send a reference to it. Details that differ from the ones sent last get the next
+ * number of a server-wide counter, so a version never stands for two different offers. The client keeps the same least recently used map with the
+ * same capacity and touches it in the same order, so both sides always evict the same entries.
+ * Should they drift apart anyway, a client missing the referred details asks for them with
+ * {@link RequestOfferDetailsPacket}.
+ * Only used from the server thread.
+ */
+public class QuestOfferCache {
+    public static final int CAPACITY = 64;
+
+    private record Sent(int version, OpenQuestOfferPacket.Details details) {}
+
+    // Player -> villager entity id -> details the client was sent last
+    private static final Map<UUID, Map<Integer, Sent>> SENT_DETAILS = new HashMap<>();
+    private static int lastVersion;
+
+    public static void sendOffer(ServerPlayer player, int villagerId, OpenQuestOfferPacket.Details details,
+                                 boolean questTaken, boolean playerHasQuest, boolean canShare) {
+        Map<Integer, Sent> sent = SENT_DETAILS.computeIfAbsent(player.getUUID(), k -> newLruMap());
+        Sent known = sent.get(villagerId);
+
+        boolean cached = known != null && known.details().equals(details);
+        if (cached) {
+            QuestMetrics.OFFER_CACHE_HITS.increment();
+        } else {
+            known = new Sent(++lastVersion, details);
+            sent.put(villagerId, known);
+        }
+        QuestMetrics.OFFER_PACKETS.increment();
+
+        NetworkHandler.INSTANCE.send(
+            PacketDistributor.PLAYER.with(() -> player),
+            new OpenQuestOfferPacket(villagerId, known.version(), questTaken, playerHasQuest, canShare, cached ? null : details)
+        );
+    }
+
+    // The client's cache lost the details of an offer; sends them again in full under the same version
+    public static void resendOffer(ServerPlayer player, int villagerId, int version,
+                                   boolean questTaken, boolean playerHasQuest, boolean canShare) {
+        Map<Integer, Sent> sent = SENT_DETAILS.get(player.getUUID());
+        Sent known = sent != null ? sent.get(villagerId) : null;
+        // Evicted here as well, so the next click sends everything, or a newer offer is already on its way
+        if (known == null || known.version() != version) return;
+
+        QuestMetrics.OFFER_PACKETS.increment();
+        NetworkHandler.INSTANCE.send(
+            PacketDistributor.PLAYER.with(() -> player),
+            new OpenQuestOfferPacket(villagerId, version, questTaken, playerHasQuest, canShare, known.details())
+        );
+    }
+
+    // Access ordered, drops the least recently used entry past CAPACITY
+    public static <V> Map<Integer, V> newLruMap() {
+        return new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+    }
+
+    // The client starts with an empty cache and drops it when it disconnects
+    @SubscribeEvent
+    public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        SENT_DETAILS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        SENT_DETAILS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        SENT_DETAILS.clear();
+    }
+}
@@ -2,6 +2,7 @@ package com.klemp.villagerquest.network;
 
 import com.klemp.villagerquest.item.QuestBookItem;
 import com.klemp.villagerquest.ModItems;
+import com.klemp.villagerquest.handler.QuestMarkerSyncHandler;
 import com.klemp.villagerquest.quest.MarkerManager;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import com.klemp.villagerquest.quest.QuestManager;
@@ -50,6 +51,7 @@ public class QuestResponsePacket {
                     // Check if player already has a quest
                     if (playerQuestManager.hasActiveQuest(player.getUUID())) {
                         questManager.removeQuest(villagerUUID);
+                        QuestMarkerSyncHandler.pushMarkerState(level, villagerUUID);
                         return; // Don't send message, screen already shows this
                     }
                     
@@ -72,7 +74,7 @@ public class QuestResponsePacket {
                         
                         // Only place markers for building quests, not delivery
                         if (!quest.isDeliveryQuest()) {
-                            MarkerManager.placeMarkersForQuest(quest, level);
+                            MarkerManager.get(level).placeMarkersForQuest(quest);
                             player.sendSystemMessage(Component.literal("§a✓ Quest accepted! Check your Quest Book for details."));
                         } else {
                             player.sendSystemMessage(Component.literal("§a✓ Delivery quest accepted! Check your Quest Book."));
@@ -84,6 +86,7 @@ public class QuestResponsePacket {
                 } else {
                     // Remove the quest
                     questManager.removeQuest(villagerUUID);
+                    QuestMarkerSyncHandler.pushMarkerState(level, villagerUUID);
                     // Don't send message, user just closed the screen
                 }
             }
@@ -24,23 +24,14 @@ public class QuestResultPacket {
 
     public QuestResultPacket(FriendlyByteBuf buf) {
         this.successful = buf.readBoolean();
-        this.reward = buf.readInt();
-        
-        int reasonCount = buf.readInt();
-        this.failureReasons = new ArrayList<>();
-        for (int i = 0; i < reasonCount; i++) {
-            failureReasons.add(buf.readUtf());
-        }
+        this.reward = PacketCodec.readVarInt(buf, 0, Integer.MAX_VALUE, "Reward");
+        this.failureReasons = PacketCodec.readStrings(buf);
     }
 
     public void toBytes(FriendlyByteBuf buf) {
         buf.writeBoolean(successful);
-        buf.writeInt(reward);
-        
-        buf.writeInt(failureReasons.size());
-        for (String reason : failureReasons) {
-            buf.writeUtf(reason);
-        }
+        buf.writeVarInt(reward);
+        PacketCodec.writeStrings(buf, failureReasons);
     }
 
     public boolean handle(Supplier<NetworkEvent.Context> ctx) {
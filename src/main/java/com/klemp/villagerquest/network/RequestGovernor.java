@@ -0,0 +1,115 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.*;
+
+/**
+ * Governs the client requests that make the server do real work.
+ * Every player has a token bucket per request type holding up to {@code burst} tokens, one of which
+ * comes back every {@code refillTicks} server ticks. A request that finds its bucket empty is dropped,
+ * and the player is told once each time the bucket runs dry. Requests for the same target that arrive
+ * while a job for it is still queued join that job instead of starting another.
+ * Only used from the server thread.
+ */
+public class RequestGovernor {
+    public enum Request {
+        CHECK_COMPLETION(3, 40),  // Full structure scan
+        SUBMIT_DELIVERY(4, 20),   // Delivery check and quest completion
+        SHARE_QUEST(2, 60),       // Entity query around the player
+        QUEST_BOOK(3, 40),        // Quest book screen and its compass updates
+        OFFER_DETAILS(3, 20);     // Offer details the client lost from its cache
+
+        private final int burst;
+        private final int refillTicks;
+
+        Request(int burst, int refillTicks) {
+            this.burst = burst;
+            this.refillTicks = refillTicks;
+        }
+    }
+
+    private static final class Bucket {
+        int tokens;
+        long lastRefill;
+        boolean warned;
+    }
+
+    private static final Map<UUID, EnumMap<Request, Bucket>> BUCKETS = new HashMap<>();
+    // Request type -> target -> players waiting on the job for it
+    private static final Map<Request, Map<UUID, Set<UUID>>> IN_FLIGHT = new EnumMap<>(Request.class);
+
+    // Returns false if the request should be dropped
+    public static boolean tryAcquire(ServerPlayer player, Request request) {
+        long now = player.server.getTickCount();
+        Bucket bucket = BUCKETS.computeIfAbsent(player.getUUID(), k -> new EnumMap<>(Request.class))
+            .computeIfAbsent(request, k -> {
+                Bucket fresh = new Bucket();
+                fresh.tokens = request.burst;
+                fresh.lastRefill = now;
+                return fresh;
+            });
+
+        long refills = (now - bucket.lastRefill) / request.refillTicks;
+        if (refills > 0) {
+            bucket.tokens = (int) Math.min(request.burst, bucket.tokens + refills);
+            bucket.lastRefill += refills * request.refillTicks;
+        }
+        if (bucket.tokens >= request.burst) {
+            bucket.lastRefill = now; // A full bucket doesn't bank time
+        }
+
+        if (bucket.tokens > 0) {
+            bucket.tokens--;
+            bucket.warned = false;
+            return true;
+        }
+
+        QuestMetrics.THROTTLED_REQUESTS.increment();
+        if (!bucket.warned) {
+            bucket.warned = true;
+            long waitSeconds = Math.max(1, (request.refillTicks - (now - bucket.lastRefill) + 19) / 20);
+            player.sendSystemMessage(Component.literal("§cSlow down! Try again in " + waitSeconds +
+                (waitSeconds == 1 ? " second." : " seconds.")));
+        }
+        return false;
+    }
+
+    // True if the caller should start the job, false if one is already queued and the player now waits on it
+    public static boolean startOrJoin(Request request, UUID target, ServerPlayer player) {
+        Map<UUID, Set<UUID>> jobs = IN_FLIGHT.computeIfAbsent(request, k -> new HashMap<>());
+        Set<UUID> waiting = jobs.get(target);
+        if (waiting != null) {
+            waiting.add(player.getUUID());
+            QuestMetrics.COALESCED_REQUESTS.increment();
+            return false;
+        }
+        waiting = new HashSet<>();
+        waiting.add(player.getUUID());
+        jobs.put(target, waiting);
+        return true;
+    }
+
+    // Ends the job and returns everyone who asked for it
+    public static Set<UUID> finish(Request request, UUID target) {
+        Map<UUID, Set<UUID>> jobs = IN_FLIGHT.get(request);
+        Set<UUID> waiting = jobs != null ? jobs.remove(target) : null;
+        return waiting != null ? waiting : Set.of();
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        BUCKETS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        BUCKETS.clear();
+        IN_FLIGHT.clear(); // Their jobs never run once the server is gone
+    }
+}
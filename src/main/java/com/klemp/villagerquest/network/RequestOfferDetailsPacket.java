@@ -0,0 +1,51 @@
+package com.klemp.villagerquest.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+// Sent when an offer referred to details the client no longer has, the server answers with them in full
+public class RequestOfferDetailsPacket {
+    private final int villagerId;
+    private final int version;
+    private final boolean questTaken;
+    private final boolean playerHasQuest;
+    private final boolean canShare;
+
+    public RequestOfferDetailsPacket(int villagerId, int version, boolean questTaken, boolean playerHasQuest,
+                                     boolean canShare) {
+        this.villagerId = villagerId;
+        this.version = version;
+        this.questTaken = questTaken;
+        this.playerHasQuest = playerHasQuest;
+        this.canShare = canShare;
+    }
+
+    public RequestOfferDetailsPacket(FriendlyByteBuf buf) {
+        this.villagerId = buf.readVarInt();
+        this.version = buf.readVarInt();
+        byte flags = buf.readByte();
+        this.questTaken = PacketCodec.hasFlag(flags, 0);
+        this.playerHasQuest = PacketCodec.hasFlag(flags, 1);
+        this.canShare = PacketCodec.hasFlag(flags, 2);
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeVarInt(villagerId);
+        buf.writeVarInt(version);
+        PacketCodec.writeFlags(buf, questTaken, playerHasQuest, canShare);
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            ServerPlayer player = ctx.get().getSender();
+            if (player == null || !RequestGovernor.tryAcquire(player, RequestGovernor.Request.OFFER_DETAILS)) return;
+            // The flags only decide which buttons the screen shows, every answer to it is checked again
+            QuestOfferCache.resendOffer(player, villagerId, version, questTaken, playerHasQuest, canShare);
+        });
+        ctx.get().setPacketHandled(true);
+        return true;
+    }
+}
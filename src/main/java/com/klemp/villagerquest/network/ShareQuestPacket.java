@@ -1,5 +1,6 @@
 package com.klemp.villagerquest.network;
 
+import com.klemp.villagerquest.quest.MarkerManager;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
@@ -31,6 +32,9 @@ public class ShareQuestPacket {
         ctx.get().enqueueWork(() -> {
             ServerPlayer sender = ctx.get().getSender();
             if (sender != null) {
+                if (!RequestGovernor.tryAcquire(sender, RequestGovernor.Request.SHARE_QUEST)) {
+                    return;
+                }
                 ServerLevel level = (ServerLevel) sender.level();
                 PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
                 
@@ -61,6 +65,7 @@ public class ShareQuestPacket {
                         if (playerQuestManager.shareQuest(sender.getUUID(), target.getUUID())) {
                             target.sendSystemMessage(Component.literal(
                                 "§a" + sender.getName().getString() + " shared a quest with you!"));
+                            MarkerManager.get(level).showMarkersTo(target);
                             sharedWithSomeone = true;
                         }
                     }
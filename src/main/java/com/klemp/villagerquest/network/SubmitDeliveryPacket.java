@@ -1,6 +1,9 @@
 package com.klemp.villagerquest.network;
 
 import com.klemp.villagerquest.ModItems;
+import com.klemp.villagerquest.handler.QuestMarkerSyncHandler;
+import com.klemp.villagerquest.menu.DeliveryMenu;
+import com.klemp.villagerquest.quest.InventoryTransaction;
 import com.klemp.villagerquest.quest.PlayerQuestManager;
 import com.klemp.villagerquest.quest.QuestManager;
 import com.klemp.villagerquest.quest.VillagerQuest;
@@ -9,6 +12,7 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.level.block.Block;
@@ -18,43 +22,38 @@ import net.minecraftforge.network.PacketDistributor;
 import java.util.*;
 import java.util.function.Supplier;
 
+// Asks the server to complete the delivery quest of the open delivery menu with what is in its slots
 public class SubmitDeliveryPacket {
-    private final UUID villagerUUID;
-    private final List<ItemStack> deliveredItems;
+    private final int containerId;
 
-    public SubmitDeliveryPacket(UUID villagerUUID, List<ItemStack> deliveredItems) {
-        this.villagerUUID = villagerUUID;
-        this.deliveredItems = deliveredItems;
+    public SubmitDeliveryPacket(int containerId) {
+        this.containerId = containerId;
     }
 
     public SubmitDeliveryPacket(FriendlyByteBuf buf) {
-        this.villagerUUID = buf.readUUID();
-        
-        int itemCount = buf.readInt();
-        this.deliveredItems = new ArrayList<>();
-        for (int i = 0; i < itemCount; i++) {
-            deliveredItems.add(buf.readItem());
-        }
+        this.containerId = buf.readVarInt();
     }
 
     public void toBytes(FriendlyByteBuf buf) {
-        buf.writeUUID(villagerUUID);
-        
-        buf.writeInt(deliveredItems.size());
-        for (ItemStack stack : deliveredItems) {
-            buf.writeItem(stack);
-        }
+        buf.writeVarInt(containerId);
     }
 
     public boolean handle(Supplier<NetworkEvent.Context> ctx) {
         ctx.get().enqueueWork(() -> {
             ServerPlayer player = ctx.get().getSender();
             if (player != null) {
+                if (!(player.containerMenu instanceof DeliveryMenu menu) || menu.containerId != containerId) {
+                    return; // Menu was closed in the meantime
+                }
+                if (!RequestGovernor.tryAcquire(player, RequestGovernor.Request.SUBMIT_DELIVERY)) {
+                    return;
+                }
                 ServerLevel level = (ServerLevel) player.level();
                 QuestManager questManager = QuestManager.get(level);
                 PlayerQuestManager playerQuestManager = PlayerQuestManager.get(level);
                 VillagerQuestStatus statusManager = VillagerQuestStatus.get(level);
                 
+                UUID villagerUUID = menu.getVillagerUUID();
                 VillagerQuest quest = questManager.getQuestForVillager(villagerUUID);
                 
                 if (quest == null || !quest.isDeliveryQuest()) {
@@ -69,30 +68,21 @@ public class SubmitDeliveryPacket {
                     return;
                 }
                 
-                // Count delivered items by type
-                Map<net.minecraft.world.item.Item, Integer> deliveredCount = new HashMap<>();
-                for (ItemStack stack : deliveredItems) {
-                    if (!stack.isEmpty()) {
-                        deliveredCount.put(stack.getItem(), 
-                            deliveredCount.getOrDefault(stack.getItem(), 0) + stack.getCount());
-                    }
-                }
-                
-                // Check if all required items are delivered
-                List<String> missing = new ArrayList<>();
+                // Only what was put into the delivery slots counts, the same slots the screen tallies
+                InventoryTransaction transaction = new InventoryTransaction()
+                    .from(menu.getDeliveryContainer())
+                    .withoutNested();
                 for (Map.Entry<Block, Integer> requirement : quest.getRequiredBlocks().entrySet()) {
-                    net.minecraft.world.item.Item requiredItem = requirement.getKey().asItem();
-                    int requiredCount = requirement.getValue();
-                    int delivered = deliveredCount.getOrDefault(requiredItem, 0);
-                    
-                    if (delivered < requiredCount) {
-                        missing.add((requiredCount - delivered) + "x " + 
-                            requirement.getKey().getName().getString());
-                    }
+                    transaction.require(requirement.getKey().asItem(), requirement.getValue());
                 }
                 
-                if (!missing.isEmpty()) {
+                Map<Item, Integer> missingItems = transaction.getMissing();
+                if (!missingItems.isEmpty()) {
                     // Not enough items
+                    List<String> missing = new ArrayList<>();
+                    for (Map.Entry<Item, Integer> entry : missingItems.entrySet()) {
+                        missing.add(entry.getValue() + "x " + entry.getKey().getDescription().getString());
+                    }
                     NetworkHandler.INSTANCE.send(
                         PacketDistributor.PLAYER.with(() -> player),
                         new QuestResultPacket(false, 0, missing)
@@ -100,28 +90,22 @@ public class SubmitDeliveryPacket {
                     return;
                 }
                 
-                // Success! Remove items from player inventory
-                for (Map.Entry<Block, Integer> requirement : quest.getRequiredBlocks().entrySet()) {
-                    net.minecraft.world.item.Item requiredItem = requirement.getKey().asItem();
-                    int requiredCount = requirement.getValue();
-                    
-                    // Remove from inventory
-                    int remaining = requiredCount;
-                    for (int slot = 0; slot < player.getInventory().getContainerSize(); slot++) {
-                        ItemStack slotStack = player.getInventory().getItem(slot);
-                        if (!slotStack.isEmpty() && slotStack.getItem() == requiredItem) {
-                            int toRemove = Math.min(remaining, slotStack.getCount());
-                            slotStack.shrink(toRemove);
-                            remaining -= toRemove;
-                            
-                            if (remaining <= 0) break;
-                        }
-                    }
+                // Success! Nothing was touched until here, the rest of the delivery slots goes back when the menu closes
+                if (!transaction.commit()) {
+                    return;
                 }
+                // The quest book may be in the delivery slots or still in the inventory
+                new InventoryTransaction()
+                    .from(menu.getDeliveryContainer())
+                    .from(player.getInventory())
+                    .takeIfPresent(ModItems.QUEST_BOOK.get(), 1)
+                    .commit();
+                player.closeContainer();
                 
                 // Complete quest
                 questManager.completeQuest(villagerUUID);
                 statusManager.setQuestCompleted(villagerUUID);
+                QuestMarkerSyncHandler.pushMarkerState(level, villagerUUID);
                 
                 // Get all players in the party
                 Set<UUID> partyMembers = playerQuestManager.getPlayersOnQuest(villagerUUID);
@@ -130,8 +114,10 @@ public class SubmitDeliveryPacket {
                 for (UUID memberUUID : partyMembers) {
                     ServerPlayer member = level.getServer().getPlayerList().getPlayer(memberUUID);
                     if (member != null) {
-                        // Remove quest book from inventory
-                        removeQuestBookFromInventory(member);
+                        // The submitting player's book went with the delivery
+                        if (member != player) {
+                            removeQuestBookFromInventory(member);
+                        }
                         
                         // Give reward
                         ItemStack emeralds = new ItemStack(Items.EMERALD, quest.getRewardEmeralds());
@@ -156,13 +142,9 @@ public class SubmitDeliveryPacket {
     }
     
     private void removeQuestBookFromInventory(ServerPlayer player) {
-        // Search for quest book in inventory and remove it
-        for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
-            ItemStack stack = player.getInventory().getItem(i);
-            if (stack.getItem() == ModItems.QUEST_BOOK.get()) {
-                player.getInventory().removeItem(i, 1);
-                return; // Only remove one quest book
-            }
-        }
+        new InventoryTransaction()
+            .from(player.getInventory())
+            .takeIfPresent(ModItems.QUEST_BOOK.get(), 1)
+            .commit();
     }
 }
@@ -1,5 +1,7 @@
 package com.klemp.villagerquest.quest;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -67,7 +69,7 @@ public class BuildingAreaManager extends SavedData {
         return storage.computeIfAbsent(BuildingAreaManager::new, BuildingAreaManager::new, DATA_NAME);
     }
 
-    public boolean registerBuildingArea(BlockPos corner1, BlockPos corner2) {
+    public boolean registerBuildingArea(BlockPos corner1, BlockPos corner2, UUID villagerUUID) {
         BlockPos min = new BlockPos(
             Math.min(corner1.getX(), corner2.getX()),
             Math.min(corner1.getY(), corner2.getY()),
@@ -84,7 +86,7 @@ public class BuildingAreaManager extends SavedData {
             return false;
         }
 
-        buildingAreas.add(new BuildingArea(min, max, UUID.randomUUID()));
+        buildingAreas.add(new BuildingArea(min, max, villagerUUID));
         setDirty();
         return true;
     }
@@ -98,6 +100,29 @@ public class BuildingAreaManager extends SavedData {
         return false;
     }
 
+    // Remove all areas owned by a villager, returns how many were removed
+    public int removeAreasForVillager(UUID villagerUUID) {
+        int before = buildingAreas.size();
+        buildingAreas.removeIf(area -> area.getVillagerUUID().equals(villagerUUID));
+        int removed = before - buildingAreas.size();
+        if (removed > 0) {
+            setDirty();
+        }
+        return removed;
+    }
+
+    public Set<UUID> getAreaVillagers() {
+        Set<UUID> villagers = new HashSet<>();
+        for (BuildingArea area : buildingAreas) {
+            villagers.add(area.getVillagerUUID());
+        }
+        return villagers;
+    }
+
+    public int getAreaCount() {
+        return buildingAreas.size();
+    }
+
     public List<BuildingArea> getBuildingAreas() {
         return new ArrayList<>(buildingAreas);
     }
@@ -120,6 +145,9 @@ public class BuildingAreaManager extends SavedData {
 
     @Override
     public CompoundTag save(CompoundTag tag) {
+        QuestEvents.SavedDataSave event = new QuestEvents.SavedDataSave();
+        event.begin();
+        long start = System.nanoTime();
         ListTag areaList = new ListTag();
         for (BuildingArea area : buildingAreas) {
             CompoundTag areaTag = new CompoundTag();
@@ -130,6 +158,8 @@ public class BuildingAreaManager extends SavedData {
             areaList.add(areaTag);
         }
         tag.put("Areas", areaList);
+        QuestMetrics.SAVE_TIME.recordSince(start);
+        event.finish(DATA_NAME, buildingAreas.size());
         return tag;
     }
 
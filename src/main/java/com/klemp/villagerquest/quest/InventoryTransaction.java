@@ -0,0 +1,256 @@
+package com.klemp.villagerquest.quest;
+
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import net.minecraft.core.NonNullList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.Container;
+import net.minecraft.world.ContainerHelper;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.ShulkerBoxBlock;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.entity.ShulkerBoxBlockEntity;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.*;
+
+/**
+ * Takes a set of items out of one or more containers, all or nothing.
+ * One pass over the containers counts every wanted item and remembers where it was found; nothing
+ * is touched unless every required item is there, and then only the remembered slots are emptied.
+ * Shulker boxes and item handler containers (backpacks) carried in a container are searched too,
+ * up to {@link #NESTED_SCAN_BUDGET} nested slots per transaction. Optional items are taken if they
+ * are found but never make the transaction fail.
+ * <p>
+ * The containers are scanned once, by whichever of {@link #getMissing()} and {@link #commit()} runs
+ * first, so both have to be called in the same tick. A commit checks the recorded slots again before
+ * taking anything, and a transaction commits at most once.
+ */
+public class InventoryTransaction {
+    private static final int NESTED_SCAN_BUDGET = 256;
+
+    private final List<Container> containers = new ArrayList<>();
+    private final Map<Item, Integer> required = new LinkedHashMap<>();
+    private final Map<Item, Integer> optional = new LinkedHashMap<>();
+
+    // Filled by scan(), in the order the containers were added
+    private final Map<Item, List<Source>> sources = new HashMap<>();
+    private final Map<Item, Integer> found = new HashMap<>();
+    private final List<ShulkerContents> shulkers = new ArrayList<>();
+    private int nestedBudget;
+    private boolean scanned;
+    private boolean committed;
+    private boolean searchNested = true;
+
+    // One slot holding a wanted item
+    private interface Source {
+        int count();
+        // Returns how many were actually taken
+        int take(int amount);
+    }
+
+    // Items of a carried shulker box, written back to the stack after a commit
+    private record ShulkerContents(ItemStack box, CompoundTag tag, NonNullList<ItemStack> items) {}
+
+    public InventoryTransaction from(Container container) {
+        containers.add(container);
+        scanned = false;
+        return this;
+    }
+
+    // Only the stacks directly in the containers count, boxes and backpacks are not opened
+    public InventoryTransaction withoutNested() {
+        searchNested = false;
+        scanned = false;
+        return this;
+    }
+
+    public InventoryTransaction require(Item item, int count) {
+        required.merge(item, count, Integer::sum);
+        scanned = false;
+        return this;
+    }
+
+    public InventoryTransaction takeIfPresent(Item item, int count) {
+        optional.merge(item, count, Integer::sum);
+        scanned = false;
+        return this;
+    }
+
+    // What is still missing for each required item, empty if the transaction can be committed
+    public Map<Item, Integer> getMissing() {
+        scanOnce();
+        Map<Item, Integer> missing = new LinkedHashMap<>();
+        for (Map.Entry<Item, Integer> entry : required.entrySet()) {
+            int shortBy = entry.getValue() - found.getOrDefault(entry.getKey(), 0);
+            if (shortBy > 0) {
+                missing.put(entry.getKey(), shortBy);
+            }
+        }
+        return missing;
+    }
+
+    // Removes everything if all required items are there, otherwise changes nothing
+    // Takes from the slots the scan recorded, reusing the scan of an earlier getMissing()
+    public boolean commit() {
+        if (committed || !getMissing().isEmpty()) {
+            return false;
+        }
+        // The slots may have changed since the scan, check them again before touching any
+        for (Map.Entry<Item, Integer> entry : required.entrySet()) {
+            if (available(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        committed = true;
+
+        boolean complete = true;
+        for (Map.Entry<Item, Integer> entry : required.entrySet()) {
+            int taken = take(entry.getKey(), entry.getValue());
+            if (taken < entry.getValue()) {
+                Diagnostics.warn(Subsystem.INTERACTION, "Took only {} of {} {} from the recorded slots",
+                    taken, entry.getValue(), entry.getKey());
+                complete = false;
+            }
+        }
+        for (Map.Entry<Item, Integer> entry : optional.entrySet()) {
+            take(entry.getKey(), entry.getValue());
+        }
+
+        for (ShulkerContents shulker : shulkers) {
+            ContainerHelper.saveAllItems(shulker.tag(), shulker.items(), true);
+            BlockItem.setBlockEntityData(shulker.box(), BlockEntityType.SHULKER_BOX, shulker.tag());
+        }
+        for (Container container : containers) {
+            container.setChanged();
+        }
+        return complete;
+    }
+
+    private int available(Item item) {
+        int count = 0;
+        for (Source source : sources.getOrDefault(item, List.of())) {
+            count += source.count();
+        }
+        return count;
+    }
+
+    private int take(Item item, int amount) {
+        int total = 0;
+        for (Source source : sources.getOrDefault(item, List.of())) {
+            if (total >= amount) break;
+            int wanted = Math.min(amount - total, source.count());
+            if (wanted > 0) {
+                total += source.take(wanted);
+            }
+        }
+        return total;
+    }
+
+    private void scanOnce() {
+        if (!scanned) {
+            scan();
+            scanned = true;
+        }
+    }
+
+    private void scan() {
+        sources.clear();
+        found.clear();
+        shulkers.clear();
+        nestedBudget = NESTED_SCAN_BUDGET;
+
+        for (Container container : containers) {
+            for (int slot = 0; slot < container.getContainerSize(); slot++) {
+                ItemStack stack = container.getItem(slot);
+                if (stack.isEmpty()) continue;
+
+                if (isWanted(stack.getItem())) {
+                    int index = slot;
+                    addSource(stack.getItem(), stack.getCount(), new Source() {
+                        @Override
+                        public int count() {
+                            ItemStack current = container.getItem(index);
+                            return current.is(stack.getItem()) ? current.getCount() : 0;
+                        }
+                        @Override
+                        public int take(int amount) { return container.removeItem(index, amount).getCount(); }
+                    });
+                } else if (searchNested) {
+                    scanNested(stack);
+                }
+            }
+        }
+    }
+
+    private void scanNested(ItemStack holder) {
+        if (nestedBudget <= 0) return;
+
+        if (holder.getItem() instanceof BlockItem blockItem && blockItem.getBlock() instanceof ShulkerBoxBlock) {
+            CompoundTag tag = BlockItem.getBlockEntityData(holder);
+            if (tag == null || !tag.contains("Items")) return;
+
+            NonNullList<ItemStack> items = NonNullList.withSize(ShulkerBoxBlockEntity.CONTAINER_SIZE, ItemStack.EMPTY);
+            ContainerHelper.loadAllItems(tag, items);
+            shulkers.add(new ShulkerContents(holder, tag, items));
+            for (int i = 0; i < items.size() && nestedBudget > 0; i++, nestedBudget--) {
+                ItemStack stack = items.get(i);
+                if (!stack.isEmpty() && isWanted(stack.getItem())) {
+                    addSource(stack.getItem(), stack.getCount(), new Source() {
+                        @Override
+                        public int count() { return stack.getCount(); }
+                        @Override
+                        public int take(int amount) {
+                            int taken = Math.min(amount, stack.getCount());
+                            stack.shrink(taken);
+                            return taken;
+                        }
+                    });
+                }
+            }
+            return;
+        }
+
+        holder.getCapability(ForgeCapabilities.ITEM_HANDLER).ifPresent(this::scanHandler);
+    }
+
+    private void scanHandler(IItemHandler handler) {
+        for (int slot = 0; slot < handler.getSlots() && nestedBudget > 0; slot++, nestedBudget--) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            if (stack.isEmpty() || !isWanted(stack.getItem())) continue;
+
+            // The handler decides what can leave the slot, which may be less than the slot shows or nothing
+            int index = slot;
+            Item item = stack.getItem();
+            int extractable = extractable(handler, index, item);
+            if (extractable > 0) {
+                addSource(item, extractable, new Source() {
+                    @Override
+                    public int count() { return extractable(handler, index, item); }
+                    @Override
+                    public int take(int amount) {
+                        ItemStack extracted = handler.extractItem(index, amount, false);
+                        return extracted.is(item) ? extracted.getCount() : 0;
+                    }
+                });
+            }
+        }
+    }
+
+    private static int extractable(IItemHandler handler, int slot, Item item) {
+        ItemStack simulated = handler.extractItem(slot, Integer.MAX_VALUE, true);
+        return simulated.is(item) ? simulated.getCount() : 0;
+    }
+
+    private boolean isWanted(Item item) {
+        return required.containsKey(item) || optional.containsKey(item);
+    }
+
+    private void addSource(Item item, int count, Source source) {
+        sources.computeIfAbsent(item, k -> new ArrayList<>()).add(source);
+        found.merge(item, count, Integer::sum);
+    }
+}
@@ -1,95 +1,241 @@
 package com.klemp.villagerquest.quest;
 
-import com.klemp.villagerquest.ModBlocks;
-import com.klemp.villagerquest.VillagerQuestMod;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import com.klemp.villagerquest.network.BuildSiteMarkerPacket;
+import com.klemp.villagerquest.network.NetworkHandler;
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.DimensionDataStorage;
+import net.minecraftforge.network.PacketDistributor;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
-public class MarkerManager {
-    private static final Map<UUID, List<BlockPos>> questMarkers = new HashMap<>();
+/**
+ * Tracks the build site markers of active building quests.
+ * Markers are purely visual: the corners and outline are sent to the quest's party and drawn
+ * by the client, so accepting or finishing a quest never changes a block in the world.
+ * Sites are saved with the level and indexed by the chunks they cover, so a chunk load only
+ * has to look at the sites in that chunk.
+ */
+public class MarkerManager extends SavedData {
+    private static final String DATA_NAME = "villagerquest_markers";
 
-    public static void placeMarkersForQuest(VillagerQuest quest, ServerLevel level) {
+    private final ServerLevel level;
+    private final Map<UUID, BuildSite> buildSites = new HashMap<>();
+
+    // Maps ChunkPos.toLong to the villagers whose build site covers that chunk
+    private final Map<Long, Set<UUID>> sitesByChunk = new HashMap<>();
+
+    private static class BuildSite {
+        final BlockPos min;
+        final BlockPos max;
+        final List<BlockPos> corners;
+        // Players that were sent this site and have to be told when it goes away, not saved
+        final Set<UUID> viewers = new HashSet<>();
+
+        BuildSite(BlockPos min, BlockPos max, List<BlockPos> corners) {
+            this.min = min;
+            this.max = max;
+            this.corners = corners;
+        }
+    }
+
+    public MarkerManager(ServerLevel level) {
+        super();
+        this.level = level;
+    }
+
+    public MarkerManager(ServerLevel level, CompoundTag tag) {
+        this.level = level;
+        this.load(tag);
+    }
+
+    public static MarkerManager get(ServerLevel level) {
+        DimensionDataStorage storage = level.getDataStorage();
+        return storage.computeIfAbsent(tag -> new MarkerManager(level, tag), () -> new MarkerManager(level), DATA_NAME);
+    }
+
+    public void placeMarkersForQuest(VillagerQuest quest) {
         BlockPos min = quest.getMinPos();
         BlockPos max = quest.getMaxPos();
-        
+
         List<BlockPos> markers = new ArrayList<>();
-        
-        // Place markers at the four corners at ground level
+
+        // Mark the four corners at ground level
         BlockPos[] corners = {
             new BlockPos(min.getX(), min.getY(), min.getZ()),
             new BlockPos(max.getX(), min.getY(), min.getZ()),
             new BlockPos(min.getX(), min.getY(), max.getZ()),
             new BlockPos(max.getX(), min.getY(), max.getZ())
         };
-        
-        BlockState markerState = ModBlocks.QUEST_MARKER.get().defaultBlockState();
-        
+
         for (BlockPos corner : corners) {
-            // Find the ground level at this corner
-            BlockPos groundPos = level.getHeightmapPos(
-                net.minecraft.world.level.levelgen.Heightmap.Types.WORLD_SURFACE, corner);
-            
-            // Place marker
-            level.setBlock(groundPos, markerState, 3);
-            markers.add(groundPos);
-            VillagerQuestMod.LOGGER.info("Placed quest marker at: {}", groundPos);
+            markers.add(level.getHeightmapPos(Heightmap.Types.WORLD_SURFACE, corner));
         }
-        
-        questMarkers.put(quest.getVillagerUUID(), markers);
-        VillagerQuestMod.LOGGER.info("Stored {} markers for villager {}", markers.size(), quest.getVillagerUUID());
-    }
-
-    public static void removeMarkersForQuest(UUID villagerUUID, ServerLevel level) {
-        VillagerQuestMod.LOGGER.info("Attempting to remove markers for villager: {}", villagerUUID);
-        
-        List<BlockPos> markers = questMarkers.get(villagerUUID);
-        if (markers != null) {
-            VillagerQuestMod.LOGGER.info("Found {} markers to remove", markers.size());
-            
-            for (BlockPos pos : markers) {
-                BlockState state = level.getBlockState(pos);
-                VillagerQuestMod.LOGGER.info("Checking block at {}: {}", pos, state.getBlock().getName().getString());
-                
-                if (state.getBlock() == ModBlocks.QUEST_MARKER.get()) {
-                    level.removeBlock(pos, false);
-                    VillagerQuestMod.LOGGER.info("Removed marker at: {}", pos);
-                } else {
-                    VillagerQuestMod.LOGGER.warn("Block at {} is not a quest marker: {}", pos, state.getBlock().getName().getString());
-                }
+
+        UUID villagerUUID = quest.getVillagerUUID();
+        removeSite(villagerUUID); // Replaces an older site for the same villager
+        BuildSite site = new BuildSite(min, max, markers);
+        addSite(villagerUUID, site);
+        setDirty();
+
+        for (UUID playerUUID : PlayerQuestManager.get(level).getPlayersOnQuest(villagerUUID)) {
+            ServerPlayer player = level.getServer().getPlayerList().getPlayer(playerUUID);
+            if (player != null) {
+                sendSite(player, quest, site);
             }
-            questMarkers.remove(villagerUUID);
-            VillagerQuestMod.LOGGER.info("Cleared marker list for villager {}", villagerUUID);
-        } else {
-            VillagerQuestMod.LOGGER.warn("No markers found for villager: {}", villagerUUID);
-            
-            // Debug: Print all stored marker UUIDs
-            VillagerQuestMod.LOGGER.info("Current stored marker UUIDs: {}", questMarkers.keySet());
         }
+        Diagnostics.debug(Subsystem.MARKERS, "Placed {} build site markers for villager {}", markers.size(), villagerUUID);
+    }
+
+    // Sends the site of the player's active building quest, creating it if the quest has none yet
+    public void showMarkersTo(ServerPlayer player) {
+        UUID villagerUUID = PlayerQuestManager.get(level).getActiveQuestVillager(player.getUUID());
+        if (villagerUUID == null) return;
+
+        VillagerQuest quest = QuestManager.get(level).getQuestForVillager(villagerUUID);
+        if (quest == null || quest.isDeliveryQuest()) return;
+
+        BuildSite site = buildSites.get(villagerUUID);
+        if (site == null) {
+            placeMarkersForQuest(quest); // Also sends to every online party member
+            return;
+        }
+        sendSite(player, quest, site);
     }
 
-    public static boolean hasMarkers(UUID villagerUUID) {
-        return questMarkers.containsKey(villagerUUID);
+    private void sendSite(ServerPlayer player, VillagerQuest quest, BuildSite site) {
+        UUID villagerUUID = quest.getVillagerUUID();
+        QuestEvents.MarkerSync event = new QuestEvents.MarkerSync();
+        event.begin();
+        site.viewers.add(player.getUUID());
+        NetworkHandler.INSTANCE.send(
+            PacketDistributor.PLAYER.with(() -> player),
+            BuildSiteMarkerPacket.show(villagerUUID, level.dimension(), site.min, site.max, site.corners, quest)
+        );
+        event.finish("BUILD_SITE", villagerUUID, player);
     }
-    
+
+    public void removeMarkersForQuest(UUID villagerUUID) {
+        BuildSite site = removeSite(villagerUUID);
+        if (site == null) {
+            return; // Delivery quest or never accepted
+        }
+        setDirty();
+
+        for (UUID playerUUID : site.viewers) {
+            ServerPlayer player = level.getServer().getPlayerList().getPlayer(playerUUID);
+            if (player != null) {
+                NetworkHandler.INSTANCE.send(
+                    PacketDistributor.PLAYER.with(() -> player),
+                    BuildSiteMarkerPacket.hide(villagerUUID)
+                );
+            }
+        }
+        Diagnostics.debug(Subsystem.MARKERS, "Removed build site markers for villager {}", villagerUUID);
+    }
+
+    public boolean hasMarkers(UUID villagerUUID) {
+        return buildSites.containsKey(villagerUUID);
+    }
+
+    public int getSiteCount() {
+        return buildSites.size();
+    }
+
+    // Villagers with a build site in the given chunk
+    public Set<UUID> getSitesInChunk(long chunk) {
+        return sitesByChunk.getOrDefault(chunk, Collections.emptySet());
+    }
+
     // Add method to force clean all markers (for debugging)
-    public static void cleanAllMarkers(ServerLevel level) {
-        VillagerQuestMod.LOGGER.info("Force cleaning all quest markers");
-        
-        for (Map.Entry<UUID, List<BlockPos>> entry : questMarkers.entrySet()) {
-            for (BlockPos pos : entry.getValue()) {
-                if (level.getBlockState(pos).getBlock() == ModBlocks.QUEST_MARKER.get()) {
-                    level.removeBlock(pos, false);
+    public void cleanAllMarkers() {
+        Diagnostics.info(Subsystem.MARKERS, "Force cleaning {} quest marker sites", buildSites.size());
+
+        for (UUID villagerUUID : new ArrayList<>(buildSites.keySet())) {
+            removeMarkersForQuest(villagerUUID);
+        }
+    }
+
+    private void addSite(UUID villagerUUID, BuildSite site) {
+        buildSites.put(villagerUUID, site);
+        for (long chunk : coveredChunks(site)) {
+            sitesByChunk.computeIfAbsent(chunk, k -> new HashSet<>()).add(villagerUUID);
+        }
+    }
+
+    private BuildSite removeSite(UUID villagerUUID) {
+        BuildSite site = buildSites.remove(villagerUUID);
+        if (site != null) {
+            for (long chunk : coveredChunks(site)) {
+                Set<UUID> villagers = sitesByChunk.get(chunk);
+                if (villagers != null) {
+                    villagers.remove(villagerUUID);
+                    if (villagers.isEmpty()) {
+                        sitesByChunk.remove(chunk);
+                    }
                 }
             }
         }
-        questMarkers.clear();
-        VillagerQuestMod.LOGGER.info("All markers cleaned");
+        return site;
+    }
+
+    private static List<Long> coveredChunks(BuildSite site) {
+        List<Long> chunks = new ArrayList<>();
+        int minX = site.min.getX() >> 4, maxX = site.max.getX() >> 4;
+        int minZ = site.min.getZ() >> 4, maxZ = site.max.getZ() >> 4;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                chunks.add(ChunkPos.asLong(x, z));
+            }
+        }
+        return chunks;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        QuestEvents.SavedDataSave event = new QuestEvents.SavedDataSave();
+        event.begin();
+        long start = System.nanoTime();
+        ListTag siteList = new ListTag();
+        for (Map.Entry<UUID, BuildSite> entry : buildSites.entrySet()) {
+            BuildSite site = entry.getValue();
+            CompoundTag siteTag = new CompoundTag();
+            siteTag.putUUID("Villager", entry.getKey());
+            siteTag.putLong("Min", site.min.asLong());
+            siteTag.putLong("Max", site.max.asLong());
+            siteTag.putLongArray("Corners", site.corners.stream().mapToLong(BlockPos::asLong).toArray());
+            siteList.add(siteTag);
+        }
+        tag.put("BuildSites", siteList);
+        QuestMetrics.SAVE_TIME.recordSince(start);
+        event.finish(DATA_NAME, buildSites.size());
+        return tag;
+    }
+
+    public void load(CompoundTag tag) {
+        buildSites.clear();
+        sitesByChunk.clear();
+
+        ListTag siteList = tag.getList("BuildSites", Tag.TAG_COMPOUND);
+        for (int i = 0; i < siteList.size(); i++) {
+            CompoundTag siteTag = siteList.getCompound(i);
+            List<BlockPos> corners = new ArrayList<>();
+            for (long corner : siteTag.getLongArray("Corners")) {
+                corners.add(BlockPos.of(corner));
+            }
+            addSite(siteTag.getUUID("Villager"), new BuildSite(
+                BlockPos.of(siteTag.getLong("Min")), BlockPos.of(siteTag.getLong("Max")), corners));
+        }
     }
 }
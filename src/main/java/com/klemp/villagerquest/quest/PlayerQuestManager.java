@@ -1,5 +1,7 @@
 package com.klemp.villagerquest.quest;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -107,8 +109,16 @@ public class PlayerQuestManager extends SavedData {
         return players;
     }
 
+    // Get every villager that at least one player is assigned to
+    public Set<UUID> getAssignedVillagers() {
+        return new HashSet<>(playerActiveQuests.values());
+    }
+
     @Override
     public CompoundTag save(CompoundTag tag) {
+        QuestEvents.SavedDataSave event = new QuestEvents.SavedDataSave();
+        event.begin();
+        long start = System.nanoTime();
         // Save player active quests
         ListTag questList = new ListTag();
         for (Map.Entry<UUID, UUID> entry : playerActiveQuests.entrySet()) {
@@ -136,6 +146,8 @@ public class PlayerQuestManager extends SavedData {
         }
         tag.put("Parties", partyList);
 
+        QuestMetrics.SAVE_TIME.recordSince(start);
+        event.finish(DATA_NAME, playerActiveQuests.size());
         return tag;
     }
 
@@ -1,6 +1,11 @@
 package com.klemp.villagerquest.quest;
 
 import com.klemp.villagerquest.config.QuestConfig;
+import com.klemp.villagerquest.metrics.Diagnostics;
+import com.klemp.villagerquest.metrics.Diagnostics.Subsystem;
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
+import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.npc.Villager;
@@ -9,15 +14,50 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class QuestGenerator {
 
     private static final Random RANDOM = new Random();
+    private static final int SEARCH_RADIUS = 10;
+    private static final int SEARCH_ATTEMPTS = 20;
+    private static final int CLEARANCE = 5; // Blocks above the ground that should be free
+
+    // Villagers with a generation job in flight, only touched on the server thread
+    private static final Set<UUID> PENDING = new HashSet<>();
+
+    // Everything the background search needs, captured on the server thread
+    private record BuildingRequest(UUID villagerUUID, BlockPos villagerPos, VillagerProfession profession,
+                                   VillagerQuest.QuestType questType, TerrainSnapshot terrain,
+                                   List<BuildingAreaManager.BuildingArea> reservedAreas) {}
+
+    // Result of the background search, reserved and turned into a quest back on the server thread
+    private record BuildingPlan(BlockPos corner1, BlockPos corner2, VillagerQuest.QuestType questType,
+                                Map<Block, Integer> requiredBlocks, int reward) {}
+
+    public static boolean isGenerating(UUID villagerUUID) {
+        return PENDING.contains(villagerUUID);
+    }
+
+    // Jobs still running belong to the old server, their results are dropped
+    public static void clearPending() {
+        PENDING.clear();
+    }
+
+    /**
+     * Generates a quest for the villager and hands it to {@code onDone} on the server thread, or null if
+     * none could be generated. Delivery quests are generated right away; building quests search a
+     * snapshot of the loaded terrain in the background and reserve their area when they come back.
+     * Must be called on the server thread.
+     */
+    public static void requestQuest(Villager villager, ServerLevel level, Consumer<VillagerQuest> onDone) {
+        QuestMetrics.GENERATION_ATTEMPTS.increment();
 
-    public static VillagerQuest generateQuest(Villager villager, ServerLevel level) {
         // Check config for quest type chances
         if (!QuestConfig.ENABLE_BUILDING_QUESTS.get() && !QuestConfig.ENABLE_DELIVERY_QUESTS.get()) {
-            return null; // Both disabled
+            finish(villager.getUUID(), null, onDone); // Both disabled
+            return;
         }
         
         boolean shouldBeDelivery = false;
@@ -29,21 +69,50 @@ public class QuestGenerator {
         }
         
         if (shouldBeDelivery) {
-            return generateDeliveryQuest(villager, level);
+            QuestEvents.QuestGeneration event = new QuestEvents.QuestGeneration();
+            event.begin();
+            long start = System.nanoTime();
+            VillagerQuest quest = generateDeliveryQuest(villager, level);
+            QuestMetrics.GENERATION_TIME.recordSince(start);
+            event.finish(villager.getUUID(), VillagerQuest.QuestType.DELIVERY.name(), quest != null);
+            finish(villager.getUUID(), quest, onDone);
+            return;
         }
         
         // Otherwise generate building quest
-        return generateBuildingQuest(villager, level);
+        BuildingRequest request = prepareBuildingQuest(villager, level);
+        PENDING.add(request.villagerUUID());
+        CompletableFuture.supplyAsync(() -> planBuildingQuest(request), Util.backgroundExecutor())
+            .whenCompleteAsync((plan, error) -> {
+                if (!PENDING.remove(request.villagerUUID())) {
+                    return; // Server restarted while the job was running
+                }
+                if (error != null) {
+                    Diagnostics.error(Subsystem.GENERATION, "Quest generation failed for villager {}",
+                        request.villagerUUID(), error);
+                }
+                VillagerQuest quest = null;
+                if (plan != null && villager.isAlive()) {
+                    quest = commitBuildingQuest(request.villagerUUID(), plan, level);
+                }
+                finish(request.villagerUUID(), quest, onDone);
+            }, level.getServer());
+    }
+
+    private static void finish(UUID villagerUUID, VillagerQuest quest, Consumer<VillagerQuest> onDone) {
+        if (quest == null) {
+            QuestMetrics.GENERATION_FAILURES.increment();
+            Diagnostics.debug(Subsystem.GENERATION, "No quest could be generated for villager {}", villagerUUID);
+        }
+        onDone.accept(quest);
     }
 
-    private static VillagerQuest generateBuildingQuest(Villager villager, ServerLevel level) {
-        BlockPos villagerPos = villager.blockPosition();
-        BuildingAreaManager areaManager = BuildingAreaManager.get(level);
+    private static BuildingRequest prepareBuildingQuest(Villager villager, ServerLevel level) {
+        VillagerProfession profession = villager.getVillagerData().getProfession();
         
         // Determine quest type based on profession
         VillagerQuest.QuestType questType;
-        if (villager.getVillagerData().getProfession() == VillagerProfession.NONE || 
-            villager.getVillagerData().getProfession() == VillagerProfession.NITWIT) {
+        if (profession == VillagerProfession.NONE || profession == VillagerProfession.NITWIT) {
             questType = VillagerQuest.QuestType.PERSONAL_RESIDENCE;
         } else {
             // 50% chance for either type for employed villagers
@@ -52,8 +121,31 @@ public class QuestGenerator {
                 VillagerQuest.QuestType.WORKPLACE;
         }
 
+        // Copy every column a test area could cover, see searchBuildLocation
+        BlockPos center = villager.blockPosition();
+        int testSize = QuestConfig.MIN_BUILD_WIDTH.get() + 5;
+        TerrainSnapshot terrain = TerrainSnapshot.capture(level,
+            center.getX() - SEARCH_RADIUS, center.getZ() - SEARCH_RADIUS,
+            center.getX() + SEARCH_RADIUS + testSize, center.getZ() + SEARCH_RADIUS + testSize, CLEARANCE);
+
+        return new BuildingRequest(villager.getUUID(), center, profession, questType, terrain,
+            BuildingAreaManager.get(level).getBuildingAreas());
+    }
+
+    // Runs on a background thread, must only read the request
+    private static BuildingPlan planBuildingQuest(BuildingRequest request) {
+        QuestEvents.QuestGeneration event = new QuestEvents.QuestGeneration();
+        event.begin();
+        long start = System.nanoTime();
+        BuildingPlan plan = planBuilding(request);
+        QuestMetrics.GENERATION_TIME.recordSince(start);
+        event.finish(request.villagerUUID(), request.questType().name(), plan != null);
+        return plan;
+    }
+
+    private static BuildingPlan planBuilding(BuildingRequest request) {
         // Find a suitable build location near the villager
-        BlockPos buildLocation = findSuitableBuildLocation(villagerPos, level, areaManager);
+        BlockPos buildLocation = findSuitableBuildLocation(request);
         if (buildLocation == null) {
             return null; // No suitable location found
         }
@@ -72,18 +164,23 @@ public class QuestGenerator {
         BlockPos corner1 = buildLocation;
         BlockPos corner2 = buildLocation.offset(width - 1, height - 1, length - 1);
 
-        // Register this area
-        if (!areaManager.registerBuildingArea(corner1, corner2)) {
-            return null; // Area overlaps with existing building
-        }
-
         // Generate required blocks
-        Map<Block, Integer> requiredBlocks = generateRequiredBlocks(questType, width, length, height, villager);
+        Map<Block, Integer> requiredBlocks = generateRequiredBlocks(request.questType(), width, length, height,
+            request.profession());
 
         // Calculate reward based on complexity
         int reward = calculateReward(width, length, height, requiredBlocks);
 
-        return new VillagerQuest(villager.getUUID(), corner1, corner2, questType, requiredBlocks, reward);
+        return new BuildingPlan(corner1, corner2, request.questType(), requiredBlocks, reward);
+    }
+
+    // Back on the server thread, another quest may have taken the spot in the meantime
+    private static VillagerQuest commitBuildingQuest(UUID villagerUUID, BuildingPlan plan, ServerLevel level) {
+        if (!BuildingAreaManager.get(level).registerBuildingArea(plan.corner1(), plan.corner2(), villagerUUID)) {
+            return null; // Area overlaps with existing building
+        }
+        return new VillagerQuest(villagerUUID, plan.corner1(), plan.corner2(), plan.questType(),
+            plan.requiredBlocks(), plan.reward());
     }
 
     private static VillagerQuest generateDeliveryQuest(Villager sourceVillager, ServerLevel level) {
@@ -147,28 +244,41 @@ public class QuestGenerator {
         return Math.max(3, Math.min(16, totalItems / 4));
     }
 
-    private static BlockPos findSuitableBuildLocation(BlockPos center, ServerLevel level, BuildingAreaManager areaManager) {
-        int searchRadius = 10;
+    private static BlockPos findSuitableBuildLocation(BuildingRequest request) {
+        QuestEvents.TerrainSearch event = new QuestEvents.TerrainSearch();
+        event.begin();
+        int[] stats = new int[2]; // Attempts and columns checked
+        BlockPos location = searchBuildLocation(request, stats);
+        event.finish(stats[0], stats[1], location != null);
+        return location;
+    }
+
+    private static BlockPos searchBuildLocation(BuildingRequest request, int[] stats) {
+        BlockPos center = request.villagerPos();
+        TerrainSnapshot terrain = request.terrain();
         int minSize = QuestConfig.MIN_BUILD_WIDTH.get();
         
         // Try to find a flat area near the villager that doesn't overlap
-        for (int attempt = 0; attempt < 20; attempt++) {
-            int xOffset = RANDOM.nextInt(searchRadius * 2) - searchRadius;
-            int zOffset = RANDOM.nextInt(searchRadius * 2) - searchRadius;
-            BlockPos testPos = center.offset(xOffset, 0, zOffset);
+        for (int attempt = 0; attempt < SEARCH_ATTEMPTS; attempt++) {
+            stats[0]++;
+            int xOffset = RANDOM.nextInt(SEARCH_RADIUS * 2) - SEARCH_RADIUS;
+            int zOffset = RANDOM.nextInt(SEARCH_RADIUS * 2) - SEARCH_RADIUS;
             
             // Find ground level
-            testPos = level.getHeightmapPos(net.minecraft.world.level.levelgen.Heightmap.Types.WORLD_SURFACE, testPos);
+            int groundY = terrain.getSurfaceY(center.getX() + xOffset, center.getZ() + zOffset);
+            if (groundY == TerrainSnapshot.UNLOADED) continue;
+            BlockPos testPos = new BlockPos(center.getX() + xOffset, groundY, center.getZ() + zOffset);
             
             // Check if area is relatively flat and not occupied
             int testWidth = minSize + 5;
             int testLength = minSize + 5;
             int testHeight = QuestConfig.MIN_BUILD_HEIGHT.get() + 5;
             
-            if (isAreaSuitable(testPos, level, testWidth, testLength)) {
+            stats[1] += testWidth * testLength;
+            if (isAreaSuitable(testPos, terrain, testWidth, testLength)) {
                 // Check if this area would overlap with existing buildings
                 BlockPos testCorner2 = testPos.offset(testWidth - 1, testHeight - 1, testLength - 1);
-                if (!areaManager.wouldOverlap(testPos, testCorner2)) {
+                if (!wouldOverlap(request.reservedAreas(), testPos, testCorner2)) {
                     return testPos;
                 }
             }
@@ -176,22 +286,30 @@ public class QuestGenerator {
         return null;
     }
 
-    private static boolean isAreaSuitable(BlockPos pos, ServerLevel level, int width, int length) {
+    private static boolean wouldOverlap(List<BuildingAreaManager.BuildingArea> areas, BlockPos min, BlockPos max) {
+        for (BuildingAreaManager.BuildingArea area : areas) {
+            if (area.overlaps(min, max)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAreaSuitable(BlockPos pos, TerrainSnapshot terrain, int width, int length) {
         // Check if the area is flat enough and not heavily obstructed
         int baseY = pos.getY();
         int obstructedBlocks = 0;
         
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < length; z++) {
-                BlockPos checkPos = pos.offset(x, 0, z);
-                int heightDiff = Math.abs(level.getHeightmapPos(
-                    net.minecraft.world.level.levelgen.Heightmap.Types.WORLD_SURFACE, checkPos).getY() - baseY);
+        for (int x = pos.getX(); x < pos.getX() + width; x++) {
+            for (int z = pos.getZ(); z < pos.getZ() + length; z++) {
+                int surfaceY = terrain.getSurfaceY(x, z);
+                if (surfaceY == TerrainSnapshot.UNLOADED) return false; // Runs into an unloaded chunk
                 
-                if (heightDiff > 2) return false; // Too steep
+                if (Math.abs(surfaceY - baseY) > 2) return false; // Too steep
                 
                 // Check if there are blocks above ground
-                for (int y = 1; y <= 5; y++) {
-                    if (!level.getBlockState(checkPos.above(y)).isAir()) {
+                for (int y = 1; y <= CLEARANCE; y++) {
+                    if (!terrain.isAir(x, baseY + y, z)) {
                         obstructedBlocks++;
                     }
                 }
@@ -199,11 +317,11 @@ public class QuestGenerator {
         }
         
         // Area is suitable if less than 20% obstructed
-        return obstructedBlocks < (width * length * 5 * 0.2);
+        return obstructedBlocks < (width * length * CLEARANCE * 0.2);
     }
 
     private static Map<Block, Integer> generateRequiredBlocks(
-            VillagerQuest.QuestType questType, int width, int length, int height, Villager villager) {
+            VillagerQuest.QuestType questType, int width, int length, int height, VillagerProfession profession) {
         
         Map<Block, Integer> requiredBlocks = new HashMap<>();
         
@@ -233,7 +351,7 @@ public class QuestGenerator {
             requiredBlocks.put(Blocks.RED_BED, 1);
         } else if (questType == VillagerQuest.QuestType.WORKPLACE) {
             // Get profession-specific workstation
-            Block workstation = getWorkstationForProfession(villager.getVillagerData().getProfession());
+            Block workstation = getWorkstationForProfession(profession);
             requiredBlocks.put(workstation, 1);
         }
         
@@ -1,5 +1,7 @@
 package com.klemp.villagerquest.quest;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -65,13 +67,26 @@ public class QuestManager extends SavedData {
         return activeQuests.values();
     }
 
+    public int getQuestCount() {
+        return villagerToQuest.size();
+    }
+
+    public Set<UUID> getQuestVillagers() {
+        return new HashSet<>(villagerToQuest.keySet());
+    }
+
     @Override
     public CompoundTag save(CompoundTag tag) {
+        QuestEvents.SavedDataSave event = new QuestEvents.SavedDataSave();
+        event.begin();
+        long start = System.nanoTime();
         ListTag questList = new ListTag();
         for (VillagerQuest quest : activeQuests.values()) {
             questList.add(quest.serializeNBT());
         }
         tag.put("Quests", questList);
+        QuestMetrics.SAVE_TIME.recordSince(start);
+        event.finish(DATA_NAME, activeQuests.size());
         return tag;
     }
 
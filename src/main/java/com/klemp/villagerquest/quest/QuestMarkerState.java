@@ -0,0 +1,8 @@
+package com.klemp.villagerquest.quest;
+
+public enum QuestMarkerState {
+    NONE,      // Nothing above the villager's head
+    AVAILABLE, // Villager has a quest to offer
+    ACTIVE,    // Villager's quest is being worked on
+    THINKING   // Villager is coming up with a quest for a player
+}
@@ -1,7 +1,13 @@
 package com.klemp.villagerquest.quest;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.LevelReader;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.DoorBlock;
@@ -30,10 +36,55 @@ public class StructureValidator {
     }
 
     public static ValidationResult validateStructureWithReasons(VillagerQuest quest, ServerLevel level) {
+        QuestEvents.StructureValidation event = new QuestEvents.StructureValidation();
+        event.begin();
+        long start = System.nanoTime();
+        int[] voxels = new int[1]; // Block states read, for metrics
+        ValidationResult result = validate(quest, level, voxels);
+        QuestMetrics.VALIDATION_TIME.recordSince(start);
+        QuestMetrics.VALIDATION_VOXELS.record(voxels[0]);
+        
+        BlockPos min = quest.getMinPos();
+        BlockPos max = quest.getMaxPos();
+        int volume = (max.getX() - min.getX() + 1) * (max.getY() - min.getY() + 1) * (max.getZ() - min.getZ() + 1);
+        event.finish(quest.getQuestType().name(), volume, voxels[0], result.isValid());
+        return result;
+    }
+
+    /**
+     * Runs the same checks against the client's copy of the world so obvious failures can be shown
+     * without asking the server. Returns null when part of the area is not loaded on this side,
+     * the result could not be trusted then. The server repeats every check before completing a quest.
+     */
+    public static ValidationResult predict(VillagerQuest quest, LevelReader level) {
+        // The flood fill may run up to three blocks past the structure
+        if (!level.hasChunksAt(quest.getMinPos().offset(-3, 0, -3), quest.getMaxPos().offset(3, 0, 3))) {
+            return null;
+        }
+        return validate(quest, level, new int[1]);
+    }
+
+    // Furniture and enclosure state of a building, without the block counts
+    public record LayoutCheck(boolean hasStructure, boolean hasFurniture, boolean enclosed) {}
+
+    public static LayoutCheck checkLayout(VillagerQuest quest, BlockGetter level) {
+        int[] voxels = new int[1];
+        StructureBounds bounds = findActualStructure(quest, level, voxels);
+        if (bounds == null) {
+            return new LayoutCheck(false, false, false);
+        }
+        BlockPos furniturePos = findRequiredFurniture(quest, bounds, level, voxels);
+        if (furniturePos == null) {
+            return new LayoutCheck(true, false, false);
+        }
+        return new LayoutCheck(true, true, floodFill(bounds, furniturePos, level, voxels));
+    }
+
+    private static ValidationResult validate(VillagerQuest quest, BlockGetter level, int[] voxels) {
         List<String> reasons = new ArrayList<>();
         
         // Find the actual built structure within the quest area
-        StructureBounds actualStructure = findActualStructure(quest, level);
+        StructureBounds actualStructure = findActualStructure(quest, level, voxels);
         
         if (actualStructure == null) {
             reasons.add("No structure found in the quest area");
@@ -41,7 +92,7 @@ public class StructureValidator {
         }
         
         // Find the required furniture first (bed or workstation)
-        BlockPos furniturePos = findRequiredFurniture(quest, actualStructure, level);
+        BlockPos furniturePos = findRequiredFurniture(quest, actualStructure, level, voxels);
         if (furniturePos == null) {
             String required = quest.getQuestType() == VillagerQuest.QuestType.PERSONAL_RESIDENCE 
                 ? "bed" : "workstation";
@@ -50,11 +101,11 @@ public class StructureValidator {
         }
         
         // Use flood fill to check if structure is enclosed
-        if (!isEnclosedUsingFloodFill(actualStructure, furniturePos, level)) {
+        if (!isEnclosedUsingFloodFill(actualStructure, furniturePos, level, voxels)) {
             reasons.add("Structure is not fully enclosed - air leaks to outside");
         }
         
-        Map<Block, Integer> missingBlocks = getMissingBlocks(quest, actualStructure, level);
+        Map<Block, Integer> missingBlocks = getMissingBlocks(quest, actualStructure, level, voxels);
         if (!missingBlocks.isEmpty()) {
             for (Map.Entry<Block, Integer> entry : missingBlocks.entrySet()) {
                 reasons.add("Missing " + entry.getValue() + "x " + 
@@ -75,7 +126,7 @@ public class StructureValidator {
         }
     }
 
-    private static StructureBounds findActualStructure(VillagerQuest quest, ServerLevel level) {
+    private static StructureBounds findActualStructure(VillagerQuest quest, BlockGetter level, int[] voxels) {
         BlockPos questMin = quest.getMinPos();
         BlockPos questMax = quest.getMaxPos();
         
@@ -90,6 +141,7 @@ public class StructureValidator {
                 for (int z = questMin.getZ(); z <= questMax.getZ(); z++) {
                     BlockPos pos = new BlockPos(x, y, z);
                     BlockState state = level.getBlockState(pos);
+                    voxels[0]++;
                     
                     if (!state.isAir() && state.getBlock() != Blocks.WATER && state.getBlock() != Blocks.LAVA) {
                         foundAnyBlock = true;
@@ -116,7 +168,16 @@ public class StructureValidator {
      * Starts from the furniture (bed/workstation) and expands through all air blocks.
      * If it reaches outside the structure bounds, the structure is not enclosed.
      */
-    private static boolean isEnclosedUsingFloodFill(StructureBounds bounds, BlockPos startPos, ServerLevel level) {
+    private static boolean isEnclosedUsingFloodFill(StructureBounds bounds, BlockPos startPos, BlockGetter level, int[] voxels) {
+        QuestEvents.FloodFill event = new QuestEvents.FloodFill();
+        event.begin();
+        int before = voxels[0];
+        boolean enclosed = floodFill(bounds, startPos, level, voxels);
+        event.finish(voxels[0] - before, enclosed);
+        return enclosed;
+    }
+
+    private static boolean floodFill(StructureBounds bounds, BlockPos startPos, BlockGetter level, int[] voxels) {
         Set<BlockPos> visited = new HashSet<>();
         Queue<BlockPos> queue = new LinkedList<>();
         queue.add(startPos);
@@ -161,6 +222,7 @@ public class StructureValidator {
                 }
                 
                 BlockState state = level.getBlockState(neighbor);
+                voxels[0]++;
                 
                 // If it's air or truly passable (not doors!), we can move through it
                 if (isPassableForFloodFill(state, neighbor, level)) {
@@ -179,7 +241,7 @@ public class StructureValidator {
      * IMPORTANT: Doors should NOT be passable in flood fill!
      * The air can leak through door hitboxes even when closed.
      */
-    private static boolean isPassableForFloodFill(BlockState state, BlockPos pos, ServerLevel level) {
+    private static boolean isPassableForFloodFill(BlockState state, BlockPos pos, BlockGetter level) {
         Block block = state.getBlock();
         
         // Air is passable
@@ -201,7 +263,7 @@ public class StructureValidator {
         }
         
         // Pressure plates, buttons, signs - these are thin and shouldn't block
-        String blockName = block.getName().getString().toLowerCase();
+        String blockName = getBlockId(block);
         if (blockName.contains("pressure") || blockName.contains("button") || 
             blockName.contains("sign") || blockName.contains("banner")) {
             return true;
@@ -215,10 +277,16 @@ public class StructureValidator {
         return false;
     }
 
-    private static BlockPos findRequiredFurniture(VillagerQuest quest, StructureBounds bounds, ServerLevel level) {
-        BlockPos min = bounds.min;
-        BlockPos max = bounds.max;
-        
+    // Bed or workstation anywhere in the quest area, where the villager is sent to check it can get in
+    public static BlockPos findFurniture(VillagerQuest quest, BlockGetter level) {
+        return findRequiredFurniture(quest, quest.getMinPos(), quest.getMaxPos(), level, new int[1]);
+    }
+
+    private static BlockPos findRequiredFurniture(VillagerQuest quest, StructureBounds bounds, BlockGetter level, int[] voxels) {
+        return findRequiredFurniture(quest, bounds.min, bounds.max, level, voxels);
+    }
+
+    private static BlockPos findRequiredFurniture(VillagerQuest quest, BlockPos min, BlockPos max, BlockGetter level, int[] voxels) {
         // Check what's required based on quest type
         if (quest.getQuestType() == VillagerQuest.QuestType.PERSONAL_RESIDENCE) {
             // Look for any bed
@@ -226,10 +294,8 @@ public class StructureValidator {
                 for (int y = min.getY(); y <= max.getY(); y++) {
                     for (int z = min.getZ(); z <= max.getZ(); z++) {
                         BlockPos pos = new BlockPos(x, y, z);
-                        Block block = level.getBlockState(pos).getBlock();
-                        String blockName = block.getName().getString().toLowerCase();
-                        
-                        if (blockName.contains("bed")) {
+                        voxels[0]++;
+                        if (level.getBlockState(pos).is(BlockTags.BEDS)) {
                             return pos;
                         }
                     }
@@ -239,7 +305,7 @@ public class StructureValidator {
             // Look for workstation
             for (var entry : quest.getRequiredBlocks().entrySet()) {
                 Block requiredBlock = entry.getKey();
-                String blockName = requiredBlock.getName().getString().toLowerCase();
+                String blockName = getBlockId(requiredBlock);
                 
                 // Check if this is a workstation block
                 if (isWorkstationBlock(blockName)) {
@@ -247,6 +313,7 @@ public class StructureValidator {
                         for (int y = min.getY(); y <= max.getY(); y++) {
                             for (int z = min.getZ(); z <= max.getZ(); z++) {
                                 BlockPos pos = new BlockPos(x, y, z);
+                                voxels[0]++;
                                 if (level.getBlockState(pos).getBlock() == requiredBlock) {
                                     return pos;
                                 }
@@ -260,7 +327,7 @@ public class StructureValidator {
         return null;
     }
 
-    private static Map<Block, Integer> getMissingBlocks(VillagerQuest quest, StructureBounds bounds, ServerLevel level) {
+    private static Map<Block, Integer> getMissingBlocks(VillagerQuest quest, StructureBounds bounds, BlockGetter level, int[] voxels) {
         BlockPos min = bounds.min;
         BlockPos max = bounds.max;
         
@@ -272,6 +339,7 @@ public class StructureValidator {
                 for (int z = min.getZ(); z <= max.getZ(); z++) {
                     BlockPos pos = new BlockPos(x, y, z);
                     Block block = level.getBlockState(pos).getBlock();
+                    voxels[0]++;
                     
                     if (block != Blocks.AIR) {
                         foundBlocks.put(block, foundBlocks.getOrDefault(block, 0) + 1);
@@ -295,6 +363,11 @@ public class StructureValidator {
         return missingBlocks;
     }
 
+    // Registry path instead of the display name, so the client and server agree whatever the language
+    private static String getBlockId(Block block) {
+        return BuiltInRegistries.BLOCK.getKey(block).getPath();
+    }
+
     private static boolean isWorkstationBlock(String blockName) {
         return blockName.contains("table") || blockName.contains("furnace") || 
                blockName.contains("stand") || blockName.contains("composter") ||
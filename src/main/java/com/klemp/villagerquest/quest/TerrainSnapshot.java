@@ -0,0 +1,89 @@
+package com.klemp.villagerquest.quest;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only copy of the surface heights and block states of an area, taken on the main thread
+ * so quest generation can search it from a background thread. Only chunks that were already
+ * loaded are copied; columns in other chunks report as unloaded and are never suitable.
+ */
+public class TerrainSnapshot {
+    public static final int UNLOADED = Integer.MIN_VALUE;
+
+    private final int minX;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeZ;
+    // Same value Level.getHeightmapPos(WORLD_SURFACE) would give: the first free block above the surface
+    private final int[] surface;
+    // Keyed by SectionPos.asLong
+    private final Map<Long, PalettedContainer<BlockState>> sections = new HashMap<>();
+
+    private TerrainSnapshot(int minX, int minZ, int sizeX, int sizeZ) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.surface = new int[sizeX * sizeZ];
+    }
+
+    // Copies the columns from min to max (inclusive) and the blocks from their lowest surface up to blocksAbove over the highest
+    public static TerrainSnapshot capture(ServerLevel level, int minX, int minZ, int maxX, int maxZ, int blocksAbove) {
+        TerrainSnapshot snapshot = new TerrainSnapshot(minX, minZ, maxX - minX + 1, maxZ - minZ + 1);
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(x >> 4, z >> 4);
+                int height = UNLOADED;
+                if (chunk != null) {
+                    height = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15) + 1;
+                    lowest = Math.min(lowest, height);
+                    highest = Math.max(highest, height);
+                }
+                snapshot.surface[(x - minX) * snapshot.sizeZ + (z - minZ)] = height;
+            }
+        }
+        if (lowest > highest) {
+            return snapshot; // Nothing loaded
+        }
+
+        int minSection = SectionPos.blockToSectionCoord(Math.max(lowest, level.getMinBuildHeight()));
+        int maxSection = SectionPos.blockToSectionCoord(Math.min(highest + blocksAbove, level.getMaxBuildHeight() - 1));
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                if (chunk == null) continue;
+
+                for (int sectionY = minSection; sectionY <= maxSection; sectionY++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+                    snapshot.sections.put(SectionPos.asLong(chunkX, sectionY, chunkZ), section.getStates().copy());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public int getSurfaceY(int x, int z) {
+        if (x < minX || z < minZ || x >= minX + sizeX || z >= minZ + sizeZ) {
+            return UNLOADED;
+        }
+        return surface[(x - minX) * sizeZ + (z - minZ)];
+    }
+
+    // Blocks outside the copied area count as solid
+    public boolean isAir(int x, int y, int z) {
+        PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        return states != null && states.get(x & 15, y & 15, z & 15).isAir();
+    }
+}
@@ -0,0 +1,127 @@
+package com.klemp.villagerquest.quest;
+
+import com.klemp.villagerquest.entity.WanderingQuestVillager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiTypes;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coarse per-level map of where villages are, in regions of 8x8 chunks.
+ * A region counts as a village when loaded villagers live in it (kept up to date from entity events)
+ * or when the POI manager has a meeting point (bell) in one of its loaded chunks. Meeting points are
+ * looked up at most once per region every {@link #MEETING_POINT_TTL} ticks.
+ */
+public class VillagePresenceMap {
+    private static final Map<ResourceKey<Level>, VillagePresenceMap> MAPS = new HashMap<>();
+    private static final int REGION_SHIFT = 3; // 8 chunks, 128 blocks
+    private static final long MEETING_POINT_TTL = 6000; // 5 minutes
+    private static final int MAX_CACHED_REGIONS = 1024;
+
+    // Region key to the number of loaded village villagers in it
+    private final Map<Long, Integer> villagerCounts = new HashMap<>();
+    // Region key to the game time its meeting point lookup expires, negative if it found none
+    private final Map<Long, Long> meetingPoints = new HashMap<>();
+
+    public static VillagePresenceMap get(ServerLevel level) {
+        return MAPS.computeIfAbsent(level.dimension(), k -> new VillagePresenceMap());
+    }
+
+    public static void clearAll() {
+        MAPS.clear();
+    }
+
+    public static long regionOf(long chunk) {
+        return ChunkPos.asLong(ChunkPos.getX(chunk) >> REGION_SHIFT, ChunkPos.getZ(chunk) >> REGION_SHIFT);
+    }
+
+    // Wandering quest villagers travel alone and don't make a village
+    private static boolean countsAsVillage(Villager villager) {
+        return !(villager instanceof WanderingQuestVillager);
+    }
+
+    public void addVillager(Villager villager, long chunk) {
+        if (countsAsVillage(villager)) {
+            villagerCounts.merge(regionOf(chunk), 1, Integer::sum);
+        }
+    }
+
+    public void removeVillager(Villager villager, long chunk) {
+        if (countsAsVillage(villager)) {
+            villagerCounts.computeIfPresent(regionOf(chunk), (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public void moveVillager(Villager villager, long fromChunk, long toChunk) {
+        if (regionOf(fromChunk) != regionOf(toChunk)) {
+            removeVillager(villager, fromChunk);
+            addVillager(villager, toChunk);
+        }
+    }
+
+    // True if the region around pos or one of its neighbours is a village, covers at least 128 blocks each way
+    public boolean isNearVillage(ServerLevel level, BlockPos pos) {
+        int regionX = (pos.getX() >> 4) >> REGION_SHIFT;
+        int regionZ = (pos.getZ() >> 4) >> REGION_SHIFT;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (villagerCounts.containsKey(ChunkPos.asLong(regionX + dx, regionZ + dz))) {
+                    return true;
+                }
+            }
+        }
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (hasMeetingPoint(level, regionX + dx, regionZ + dz)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasMeetingPoint(ServerLevel level, int regionX, int regionZ) {
+        long region = ChunkPos.asLong(regionX, regionZ);
+        long now = level.getGameTime();
+        Long cached = meetingPoints.get(region);
+        if (cached != null && Math.abs(cached) > now) {
+            return cached > 0;
+        }
+
+        if (meetingPoints.size() >= MAX_CACHED_REGIONS) {
+            meetingPoints.values().removeIf(expires -> Math.abs(expires) <= now);
+        }
+        boolean found = findMeetingPoint(level, regionX, regionZ);
+        meetingPoints.put(region, found ? now + MEETING_POINT_TTL : -(now + MEETING_POINT_TTL));
+        return found;
+    }
+
+    // Only chunks that are loaded, so the POI data is already in memory
+    private static boolean findMeetingPoint(ServerLevel level, int regionX, int regionZ) {
+        PoiManager poiManager = level.getPoiManager();
+        int size = 1 << REGION_SHIFT;
+        for (int chunkX = regionX << REGION_SHIFT; chunkX < (regionX << REGION_SHIFT) + size; chunkX++) {
+            for (int chunkZ = regionZ << REGION_SHIFT; chunkZ < (regionZ << REGION_SHIFT) + size; chunkZ++) {
+                if (level.getChunkSource().getChunkNow(chunkX, chunkZ) == null) continue;
+
+                if (poiManager.getInChunk(type -> type.is(PoiTypes.MEETING), new ChunkPos(chunkX, chunkZ),
+                        PoiManager.Occupancy.ANY).findAny().isPresent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getVillageRegionCount() {
+        return villagerCounts.size();
+    }
+}
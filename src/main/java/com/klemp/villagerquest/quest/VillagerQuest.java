@@ -21,7 +21,7 @@ public class VillagerQuest {
     private boolean isActive;
     private boolean isCompleted;
     private UUID targetVillagerUUID; // For delivery quests
-    private boolean validationInProgress;
+    private long createdAt; // System time the quest was offered
 
     public enum QuestType {
         PERSONAL_RESIDENCE,
@@ -46,7 +46,7 @@ public class VillagerQuest {
         this.isActive = true;
         this.isCompleted = false;
         this.targetVillagerUUID = targetVillagerUUID;
-        this.validationInProgress = false;
+        this.createdAt = System.currentTimeMillis();
     }
 
     // Getters
@@ -59,12 +59,11 @@ public class VillagerQuest {
     public boolean isActive() { return isActive; }
     public boolean isCompleted() { return isCompleted; }
     public UUID getTargetVillagerUUID() { return targetVillagerUUID; }
-    public boolean isValidationInProgress() { return validationInProgress; }
+    public long getCreatedAt() { return createdAt; }
 
     // Setters
     public void setCompleted(boolean completed) { this.isCompleted = completed; }
     public void setActive(boolean active) { this.isActive = active; }
-    public void setValidationInProgress(boolean inProgress) { this.validationInProgress = inProgress; }
 
     public boolean isDeliveryQuest() {
         return questType == QuestType.DELIVERY;
@@ -80,7 +79,7 @@ public class VillagerQuest {
         tag.putInt("Reward", rewardEmeralds);
         tag.putBoolean("Active", isActive);
         tag.putBoolean("Completed", isCompleted);
-        tag.putBoolean("ValidationInProgress", validationInProgress);
+        tag.putLong("CreatedAt", createdAt);
 
         if (targetVillagerUUID != null) {
             tag.putUUID("TargetVillager", targetVillagerUUID);
@@ -129,7 +128,8 @@ public class VillagerQuest {
         VillagerQuest quest = new VillagerQuest(villagerUUID, corner1, corner2, questType, requiredBlocks, reward, targetVillagerUUID);
         quest.setActive(tag.getBoolean("Active"));
         quest.setCompleted(tag.getBoolean("Completed"));
-        quest.setValidationInProgress(tag.getBoolean("ValidationInProgress"));
+        // Quests saved before this was recorded count as long offered
+        quest.createdAt = tag.getLong("CreatedAt");
         return quest;
     }
 
@@ -1,15 +1,16 @@
 package com.klemp.villagerquest.quest;
 
+import com.klemp.villagerquest.metrics.QuestEvents;
+import com.klemp.villagerquest.metrics.QuestMetrics;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.storage.DimensionDataStorage;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 public class VillagerQuestStatus extends SavedData {
     private static final String DATA_NAME = "villagerquest_status";
@@ -20,6 +21,23 @@ public class VillagerQuestStatus extends SavedData {
     
     // Maps villager UUID to whether they have a quest marker (available quest)
     private Map<UUID, Boolean> hasQuestMarker = new HashMap<>();
+    
+    // Maps villager UUID to the chunk (ChunkPos.toLong) it was last seen in
+    private Map<UUID, Long> lastKnownChunk = new HashMap<>();
+    
+    // Pending cooldowns ordered by end time, rebuilt on load
+    private final PriorityQueue<CooldownEntry> cooldownQueue = 
+        new PriorityQueue<>(Comparator.comparingLong((CooldownEntry entry) -> entry.endsAt));
+
+    private static class CooldownEntry {
+        final UUID villagerUUID;
+        final long endsAt;
+
+        CooldownEntry(UUID villagerUUID, long endsAt) {
+            this.villagerUUID = villagerUUID;
+            this.endsAt = endsAt;
+        }
+    }
 
     public VillagerQuestStatus() {
         super();
@@ -58,40 +76,91 @@ public class VillagerQuestStatus extends SavedData {
     }
 
     public void setQuestOffered(UUID villagerUUID) {
-        lastQuestTime.put(villagerUUID, System.currentTimeMillis());
+        startCooldown(villagerUUID, System.currentTimeMillis());
         hasQuestMarker.put(villagerUUID, false); // Remove marker when quest is taken
         setDirty();
     }
 
     public void setQuestCompleted(UUID villagerUUID) {
-        lastQuestTime.put(villagerUUID, System.currentTimeMillis());
+        startCooldown(villagerUUID, System.currentTimeMillis());
         hasQuestMarker.put(villagerUUID, false);
         setDirty();
     }
 
+    private void startCooldown(UUID villagerUUID, long startTime) {
+        lastQuestTime.put(villagerUUID, startTime);
+        cooldownQueue.add(new CooldownEntry(villagerUUID, startTime + QUEST_COOLDOWN * 50));
+    }
+
     public boolean hasQuestMarker(UUID villagerUUID) {
         return hasQuestMarker.getOrDefault(villagerUUID, false);
     }
 
-    public void updateQuestMarkers(ServerLevel level) {
-        // This should be called periodically to update which villagers have quest markers
+    public void recordVillagerChunk(UUID villagerUUID, ChunkPos chunkPos) {
+        Long previous = lastKnownChunk.put(villagerUUID, chunkPos.toLong());
+        if (previous == null || previous != chunkPos.toLong()) {
+            setDirty();
+        }
+    }
+
+    // Follows villagers that already have a row, passing villagers are not worth saving
+    public void updateVillagerChunk(UUID villagerUUID, ChunkPos chunkPos) {
+        if (lastKnownChunk.containsKey(villagerUUID) || lastQuestTime.containsKey(villagerUUID)) {
+            recordVillagerChunk(villagerUUID, chunkPos);
+        }
+    }
+
+    public ChunkPos getLastKnownChunk(UUID villagerUUID) {
+        Long packed = lastKnownChunk.get(villagerUUID);
+        return packed != null ? new ChunkPos(packed) : null;
+    }
+
+    // All villagers that have any row in this manager
+    public Set<UUID> getTrackedVillagers() {
+        Set<UUID> villagers = new HashSet<>(lastQuestTime.keySet());
+        villagers.addAll(hasQuestMarker.keySet());
+        villagers.addAll(lastKnownChunk.keySet());
+        return villagers;
+    }
+
+    // Drop every row for a villager, returns true if anything was removed
+    public boolean removeVillager(UUID villagerUUID) {
+        boolean removed = lastQuestTime.remove(villagerUUID) != null;
+        removed |= hasQuestMarker.remove(villagerUUID) != null;
+        removed |= lastKnownChunk.remove(villagerUUID) != null;
+        if (removed) {
+            setDirty();
+        }
+        return removed;
+    }
+
+    // Marks up to limit villagers whose cooldown has ended since the last call and returns them
+    public List<UUID> pollExpiredCooldowns(int limit) {
+        List<UUID> expired = new ArrayList<>();
         long currentTime = System.currentTimeMillis();
         
-        for (Map.Entry<UUID, Long> entry : lastQuestTime.entrySet()) {
-            UUID villagerUUID = entry.getKey();
-            long lastTime = entry.getValue();
-            long elapsed = currentTime - lastTime;
-            long cooldownMs = QUEST_COOLDOWN * 50;
+        while (expired.size() < limit && !cooldownQueue.isEmpty() && cooldownQueue.peek().endsAt <= currentTime) {
+            CooldownEntry entry = cooldownQueue.poll();
+            Long lastTime = lastQuestTime.get(entry.villagerUUID);
+            
+            // Skip entries replaced by a newer quest or removed by the sweeper
+            if (lastTime == null || lastTime + QUEST_COOLDOWN * 50 != entry.endsAt) continue;
             
-            if (elapsed >= cooldownMs) {
-                hasQuestMarker.put(villagerUUID, true);
-            }
+            hasQuestMarker.put(entry.villagerUUID, true);
+            expired.add(entry.villagerUUID);
         }
-        setDirty();
+        
+        if (!expired.isEmpty()) {
+            setDirty();
+        }
+        return expired;
     }
 
     @Override
     public CompoundTag save(CompoundTag tag) {
+        QuestEvents.SavedDataSave event = new QuestEvents.SavedDataSave();
+        event.begin();
+        long start = System.nanoTime();
         ListTag timeList = new ListTag();
         for (Map.Entry<UUID, Long> entry : lastQuestTime.entrySet()) {
             CompoundTag timeTag = new CompoundTag();
@@ -110,17 +179,30 @@ public class VillagerQuestStatus extends SavedData {
         }
         tag.put("QuestMarkers", markerList);
 
+        ListTag chunkList = new ListTag();
+        for (Map.Entry<UUID, Long> entry : lastKnownChunk.entrySet()) {
+            CompoundTag chunkTag = new CompoundTag();
+            chunkTag.putUUID("Villager", entry.getKey());
+            chunkTag.putLong("Chunk", entry.getValue());
+            chunkList.add(chunkTag);
+        }
+        tag.put("LastKnownChunks", chunkList);
+
+        QuestMetrics.SAVE_TIME.recordSince(start);
+        event.finish(DATA_NAME, lastQuestTime.size());
         return tag;
     }
 
     public void load(CompoundTag tag) {
         lastQuestTime.clear();
         hasQuestMarker.clear();
+        lastKnownChunk.clear();
+        cooldownQueue.clear();
 
         ListTag timeList = tag.getList("LastQuestTimes", Tag.TAG_COMPOUND);
         for (int i = 0; i < timeList.size(); i++) {
             CompoundTag timeTag = timeList.getCompound(i);
-            lastQuestTime.put(timeTag.getUUID("Villager"), timeTag.getLong("Time"));
+            startCooldown(timeTag.getUUID("Villager"), timeTag.getLong("Time"));
         }
 
         ListTag markerList = tag.getList("QuestMarkers", Tag.TAG_COMPOUND);
@@ -128,5 +210,11 @@ public class VillagerQuestStatus extends SavedData {
             CompoundTag markerTag = markerList.getCompound(i);
             hasQuestMarker.put(markerTag.getUUID("Villager"), markerTag.getBoolean("HasMarker"));
         }
+
+        ListTag chunkList = tag.getList("LastKnownChunks", Tag.TAG_COMPOUND);
+        for (int i = 0; i < chunkList.size(); i++) {
+            CompoundTag chunkTag = chunkList.getCompound(i);
+            lastKnownChunk.put(chunkTag.getUUID("Villager"), chunkTag.getLong("Chunk"));
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.quest.VillagerQuest;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacketCodecTest {
+
+    private static FriendlyByteBuf varInts(int... values) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        for (int value : values) {
+            buf.writeVarInt(value);
+        }
+        return buf;
+    }
+
+    private static FriendlyByteBuf withPadding(int count, int paddingBytes) {
+        FriendlyByteBuf buf = varInts(count);
+        buf.writeZero(paddingBytes);
+        return buf;
+    }
+
+    @Test
+    void readCountAcceptsZeroAndMax() {
+        assertEquals(0, PacketCodec.readCount(withPadding(0, 0), 32, 2, "Test"));
+        assertEquals(32, PacketCodec.readCount(withPadding(32, 64), 32, 2, "Test"));
+    }
+
+    @Test
+    void readCountRejectsOutOfRange() {
+        assertThrows(DecoderException.class, () -> PacketCodec.readCount(withPadding(33, 66), 32, 2, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readCount(withPadding(-1, 0), 32, 2, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readCount(withPadding(Integer.MAX_VALUE, 0), 32, 2, "Test"));
+    }
+
+    @Test
+    void readCountRejectsMoreEntriesThanBytesLeft() {
+        assertEquals(4, PacketCodec.readCount(withPadding(4, 8), 32, 2, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readCount(withPadding(4, 7), 32, 2, "Test"));
+        // Large entry sizes must not overflow the check
+        assertThrows(DecoderException.class, () -> PacketCodec.readCount(withPadding(32, 64), 32, Integer.MAX_VALUE, "Test"));
+    }
+
+    @Test
+    void readVarIntChecksBothEnds() {
+        assertEquals(0, PacketCodec.readVarInt(varInts(0), 0, 50, "Test"));
+        assertEquals(50, PacketCodec.readVarInt(varInts(50), 0, 50, "Test"));
+        assertEquals(Integer.MAX_VALUE, PacketCodec.readVarInt(varInts(Integer.MAX_VALUE), 0, Integer.MAX_VALUE, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readVarInt(varInts(51), 0, 50, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readVarInt(varInts(-1), 0, 50, "Test"));
+        assertThrows(DecoderException.class, () -> PacketCodec.readVarInt(varInts(Integer.MIN_VALUE), 0, Integer.MAX_VALUE, "Test"));
+    }
+
+    @Test
+    void readEnumAcceptsEveryOrdinal() {
+        for (VillagerQuest.QuestType type : VillagerQuest.QuestType.values()) {
+            assertEquals(type, PacketCodec.readEnum(varInts(type.ordinal()), VillagerQuest.QuestType.class));
+        }
+    }
+
+    @Test
+    void readEnumRejectsUnknownOrdinals() {
+        int count = VillagerQuest.QuestType.values().length;
+        assertThrows(DecoderException.class, () -> PacketCodec.readEnum(varInts(count), VillagerQuest.QuestType.class));
+        assertThrows(DecoderException.class, () -> PacketCodec.readEnum(varInts(-1), VillagerQuest.QuestType.class));
+    }
+
+    @Test
+    void readBlockCountsRejectsTooManyTypesBeforeReadingIds() {
+        int tooMany = PacketCodec.MAX_BLOCK_TYPES + 1;
+        assertThrows(DecoderException.class, () -> PacketCodec.readBlockCounts(withPadding(tooMany, tooMany * 2)));
+    }
+
+    @Test
+    void stringsAreCappedOnWriteAndCheckedOnRead() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        PacketCodec.writeStrings(buf, List.of("a".repeat(PacketCodec.MAX_STRING_LENGTH + 10)));
+        assertEquals(PacketCodec.MAX_STRING_LENGTH, PacketCodec.readStrings(buf).get(0).length());
+
+        FriendlyByteBuf tooLong = varInts(1);
+        tooLong.writeUtf("a".repeat(PacketCodec.MAX_STRING_LENGTH + 1));
+        assertThrows(DecoderException.class, () -> PacketCodec.readStrings(tooLong));
+
+        assertThrows(DecoderException.class, () -> PacketCodec.readStrings(withPadding(PacketCodec.MAX_STRINGS + 1, 64)));
+    }
+
+    @Test
+    void flagsKeepTheirOrder() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        PacketCodec.writeFlags(buf, true, false, false, true);
+        byte flags = buf.readByte();
+        assertTrue(PacketCodec.hasFlag(flags, 0));
+        assertFalse(PacketCodec.hasFlag(flags, 1));
+        assertFalse(PacketCodec.hasFlag(flags, 2));
+        assertTrue(PacketCodec.hasFlag(flags, 3));
+    }
+}
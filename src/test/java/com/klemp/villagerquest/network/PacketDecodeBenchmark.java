@@ -0,0 +1,86 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.quest.QuestMarkerState;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Timed decode loops for the packets sent most often. Tagged so the default test task skips it,
+ * run it with {@code gradlew benchmark}. Results are published through the test report.
+ */
+@Tag("benchmark")
+class PacketDecodeBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    // Keeps the JIT from dropping the decoded packets
+    private static int sink;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    private static byte[] encode(Consumer<FriendlyByteBuf> writer) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        writer.accept(buf);
+        return ByteBufUtil.getBytes(buf);
+    }
+
+    private static void measure(TestReporter reporter, String name, Function<FriendlyByteBuf, ?> decoder,
+                                Consumer<FriendlyByteBuf> writer) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(encode(writer)));
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            buf.readerIndex(0);
+            sink += System.identityHashCode(decoder.apply(buf));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            buf.readerIndex(0);
+            sink += System.identityHashCode(decoder.apply(buf));
+        }
+        double nanosPerDecode = (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+        reporter.publishEntry(name, String.format("%.1f ns/decode", nanosPerDecode));
+    }
+
+    @Test
+    void markerUpdate(TestReporter reporter) {
+        measure(reporter, "QuestMarkerUpdate", PacketCodec.decoder(QuestMarkerUpdatePacket::new),
+            new QuestMarkerUpdatePacket(1024, QuestMarkerState.THINKING)::toBytes);
+    }
+
+    @Test
+    void offerReference(TestReporter reporter) {
+        measure(reporter, "OpenQuestOffer reference", PacketCodec.decoder(OpenQuestOfferPacket::new),
+            new OpenQuestOfferPacket(1024, 40, false, true, true, null)::toBytes);
+    }
+
+    @Test
+    void offerDetails(TestReporter reporter) {
+        OpenQuestOfferPacket.Details details = new OpenQuestOfferPacket.Details(VillagerQuest.QuestType.WORKPLACE,
+            Map.of(Blocks.OAK_PLANKS, 40, Blocks.GLASS, 6, Blocks.COBBLESTONE, 24), 20, 9, 7, 5, List.of("Alex", "Steve"));
+        measure(reporter, "OpenQuestOffer details", PacketCodec.decoder(OpenQuestOfferPacket::new),
+            new OpenQuestOfferPacket(1024, 40, false, true, true, details)::toBytes);
+    }
+
+    @Test
+    void questResult(TestReporter reporter) {
+        measure(reporter, "QuestResult", PacketCodec.decoder(QuestResultPacket::new),
+            new QuestResultPacket(false, 128, List.of("Roof", "Bed", "Door"))::toBytes);
+    }
+}
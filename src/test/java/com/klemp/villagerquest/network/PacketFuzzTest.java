@@ -0,0 +1,163 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.quest.QuestMarkerState;
+import com.klemp.villagerquest.quest.VillagerQuest;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Feeds random, truncated and mutated bytes to every packet decoder. A malformed packet may only
+ * fail with DecoderException or IndexOutOfBoundsException, and no length prefix may make a decoder
+ * allocate more than the packet could possibly hold.
+ */
+class PacketFuzzTest {
+    private static final long SEED = 0x5EEDL;
+    private static final int RANDOM_ROUNDS = 2000;
+    private static final int MUTATION_ROUNDS = 500;
+    private static final int MAX_RANDOM_LENGTH = 96;
+    // An exception with its stack trace plus the largest valid sample stays well below this
+    private static final long MAX_ALLOCATED_BYTES = 256 * 1024;
+
+    private static final UUID VILLAGER = UUID.fromString("5f0c6a3e-2b7d-4c1e-9a8f-3d2e1c0b9a87");
+
+    record Sample(String name, Function<FriendlyByteBuf, ?> decoder, Consumer<FriendlyByteBuf> writer) {}
+
+    private static List<Sample> samples;
+
+    @BeforeAll
+    static void bootstrap() {
+        // The block decoders look ids up in the block registry
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        Map<Block, Integer> blocks = Map.of(Blocks.OAK_PLANKS, 40, Blocks.GLASS, 6);
+        VillagerQuest house = new VillagerQuest(VILLAGER, new BlockPos(10, 64, 10), new BlockPos(17, 70, 16),
+            VillagerQuest.QuestType.PERSONAL_RESIDENCE, blocks, 12);
+        OpenQuestOfferPacket.Details details = new OpenQuestOfferPacket.Details(VillagerQuest.QuestType.WORKPLACE,
+            blocks, 20, 9, 7, 5, List.of("Alex", "Steve"));
+        ResourceKey<Level> overworld = ResourceKey.create(Registries.DIMENSION, new ResourceLocation("overworld"));
+
+        samples = List.of(
+            new Sample("QuestResponse", PacketCodec.decoder(QuestResponsePacket::new),
+                new QuestResponsePacket(VILLAGER, true)::toBytes),
+            new Sample("CheckQuestCompletion", PacketCodec.decoder(CheckQuestCompletionPacket::new),
+                new CheckQuestCompletionPacket(VILLAGER)::toBytes),
+            new Sample("ShareQuest", PacketCodec.decoder(ShareQuestPacket::new),
+                new ShareQuestPacket(VILLAGER)::toBytes),
+            new Sample("CancelQuest", PacketCodec.decoder(CancelQuestPacket::new),
+                new CancelQuestPacket(VILLAGER)::toBytes),
+            new Sample("SubmitDelivery", PacketCodec.decoder(SubmitDeliveryPacket::new),
+                new SubmitDeliveryPacket(300)::toBytes),
+            new Sample("CloseQuestBook", PacketCodec.decoder(CloseQuestBookPacket::new),
+                new CloseQuestBookPacket(300)::toBytes),
+            new Sample("RequestOfferDetails", PacketCodec.decoder(RequestOfferDetailsPacket::new),
+                new RequestOfferDetailsPacket(128, 5, false, true, false)::toBytes),
+            new Sample("OpenQuestOffer", PacketCodec.decoder(OpenQuestOfferPacket::new),
+                new OpenQuestOfferPacket(128, 5, false, true, true, details)::toBytes),
+            new Sample("QuestResult", PacketCodec.decoder(QuestResultPacket::new),
+                new QuestResultPacket(false, 128, List.of("Roof", "Bed"))::toBytes),
+            new Sample("QuestMarkerUpdate", PacketCodec.decoder(QuestMarkerUpdatePacket::new),
+                new QuestMarkerUpdatePacket(128, QuestMarkerState.THINKING)::toBytes),
+            new Sample("BuildSiteMarker", PacketCodec.decoder(BuildSiteMarkerPacket::new),
+                BuildSiteMarkerPacket.show(VILLAGER, overworld, house.getMinPos(), house.getMaxPos(),
+                    List.of(house.getMinPos(), house.getMaxPos()), house)::toBytes),
+            new Sample("OpenQuestBook", PacketCodec.decoder(OpenQuestBookPacket::new),
+                new OpenQuestBookPacket(300, house, new BlockPos(12, 64, 9))::toBytes),
+            new Sample("QuestBookTarget", PacketCodec.decoder(QuestBookTargetPacket::new),
+                new QuestBookTargetPacket(300, new BlockPos(12, 70, -5))::toBytes));
+
+        // Class loading and first-call setup would otherwise count against the allocation bound
+        for (Sample sample : samples) {
+            sample.decoder().apply(new FriendlyByteBuf(Unpooled.wrappedBuffer(encode(sample))));
+        }
+    }
+
+    private static byte[] encode(Sample sample) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        sample.writer().accept(buf);
+        return ByteBufUtil.getBytes(buf);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static void assertDecodesSafely(Sample sample, byte[] bytes) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+        long before = allocatedBytes();
+        try {
+            sample.decoder().apply(buf);
+        } catch (DecoderException | IndexOutOfBoundsException expected) {
+            // Rejected cleanly
+        } catch (RuntimeException e) {
+            fail(sample.name() + " threw " + e + " for " + ByteBufUtil.hexDump(bytes), e);
+        }
+        long allocated = allocatedBytes() - before;
+        assertTrue(allocated < MAX_ALLOCATED_BYTES,
+            sample.name() + " allocated " + allocated + " bytes for " + ByteBufUtil.hexDump(bytes));
+    }
+
+    @Test
+    void randomBytesAreRejectedCleanly() {
+        Random random = new Random(SEED);
+        for (Sample sample : samples) {
+            for (int round = 0; round < RANDOM_ROUNDS; round++) {
+                byte[] bytes = new byte[random.nextInt(MAX_RANDOM_LENGTH + 1)];
+                random.nextBytes(bytes);
+                assertDecodesSafely(sample, bytes);
+            }
+        }
+    }
+
+    @Test
+    void truncatedPacketsAreRejectedCleanly() {
+        for (Sample sample : samples) {
+            byte[] bytes = encode(sample);
+            for (int length = 0; length < bytes.length; length++) {
+                assertDecodesSafely(sample, Arrays.copyOf(bytes, length));
+            }
+        }
+    }
+
+    @Test
+    void mutatedPacketsAreRejectedCleanly() {
+        Random random = new Random(SEED);
+        for (Sample sample : samples) {
+            byte[] original = encode(sample);
+            for (int round = 0; round < MUTATION_ROUNDS; round++) {
+                byte[] bytes = original.clone();
+                // A few flipped bytes keep the decoder on the valid path long enough to reach the nested reads
+                int flips = 1 + random.nextInt(3);
+                for (int i = 0; i < flips; i++) {
+                    bytes[random.nextInt(bytes.length)] = (byte) random.nextInt(256);
+                }
+                assertDecodesSafely(sample, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.klemp.villagerquest.network;
+
+import com.klemp.villagerquest.quest.QuestMarkerState;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wire sizes of the protocol v2 packets. Entity ids and counts are varints, so the sizes
+ * change exactly where a varint needs another byte: 128, 16384, 2097152 and 268435456.
+ */
+class PacketSizeTest {
+    private static final int[] ENTITY_IDS = {0, 127, 128, 16383, 16384, 2097151, 2097152, 268435455, 268435456, Integer.MAX_VALUE};
+    private static final int[] VARINT_SIZES = {1, 1, 2, 2, 3, 3, 4, 4, 5, 5};
+
+    private static FriendlyByteBuf write(Consumer<FriendlyByteBuf> writer) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        writer.accept(buf);
+        return buf;
+    }
+
+    // Decodes what the writer produced, encodes the result again and checks nothing changed or was left over
+    private static void assertRoundTrip(Consumer<FriendlyByteBuf> writer, Function<FriendlyByteBuf, Consumer<FriendlyByteBuf>> decoder) {
+        FriendlyByteBuf original = write(writer);
+        String expected = ByteBufUtil.hexDump(original);
+        Consumer<FriendlyByteBuf> decoded = decoder.apply(original);
+        assertEquals(0, original.readableBytes(), "bytes left after decoding");
+        assertEquals(expected, ByteBufUtil.hexDump(write(decoded)));
+    }
+
+    @Test
+    void markerUpdateIsEntityIdAndStateByte() {
+        for (int i = 0; i < ENTITY_IDS.length; i++) {
+            QuestMarkerUpdatePacket packet = new QuestMarkerUpdatePacket(ENTITY_IDS[i], QuestMarkerState.THINKING);
+            assertEquals(VARINT_SIZES[i] + 1, write(packet::toBytes).readableBytes(), "entity id " + ENTITY_IDS[i]);
+            assertRoundTrip(packet::toBytes, buf -> new QuestMarkerUpdatePacket(buf)::toBytes);
+        }
+    }
+
+    @Test
+    void offerReferenceIsEntityIdVersionAndFlags() {
+        for (int i = 0; i < ENTITY_IDS.length; i++) {
+            OpenQuestOfferPacket packet = new OpenQuestOfferPacket(ENTITY_IDS[i], 1, true, false, true, null);
+            assertEquals(VARINT_SIZES[i] + 1 + 1, write(packet::toBytes).readableBytes(), "entity id " + ENTITY_IDS[i]);
+            assertRoundTrip(packet::toBytes, buf -> new OpenQuestOfferPacket(buf)::toBytes);
+        }
+    }
+
+    @Test
+    void offerVersionIsVarint() {
+        assertEquals(1 + 1 + 1, write(new OpenQuestOfferPacket(5, 127, false, false, false, null)::toBytes).readableBytes());
+        assertEquals(1 + 2 + 1, write(new OpenQuestOfferPacket(5, 128, false, false, false, null)::toBytes).readableBytes());
+    }
+
+    @Test
+    void offerDetailsRequestMirrorsTheReference() {
+        RequestOfferDetailsPacket packet = new RequestOfferDetailsPacket(128, 5, false, true, false);
+        assertEquals(2 + 1 + 1, write(packet::toBytes).readableBytes());
+        assertRoundTrip(packet::toBytes, buf -> new RequestOfferDetailsPacket(buf)::toBytes);
+    }
+
+    @Test
+    void deliverySubmissionIsContainerId() {
+        assertEquals(1, write(new SubmitDeliveryPacket(1)::toBytes).readableBytes());
+        assertEquals(1, write(new SubmitDeliveryPacket(127)::toBytes).readableBytes());
+        assertEquals(2, write(new SubmitDeliveryPacket(128)::toBytes).readableBytes());
+        assertRoundTrip(new SubmitDeliveryPacket(128)::toBytes, buf -> new SubmitDeliveryPacket(buf)::toBytes);
+    }
+
+    @Test
+    void questResultGrowsWithReward() {
+        assertEquals(3, write(new QuestResultPacket(true, 0, List.of())::toBytes).readableBytes());
+        assertEquals(3, write(new QuestResultPacket(true, 127, List.of())::toBytes).readableBytes());
+        assertEquals(4, write(new QuestResultPacket(true, 128, List.of())::toBytes).readableBytes());
+        assertEquals(7, write(new QuestResultPacket(true, Integer.MAX_VALUE, List.of())::toBytes).readableBytes());
+        // Flag, reward, count, then a length prefix and the bytes of each reason
+        assertEquals(1 + 1 + 1 + 1 + 4, write(new QuestResultPacket(false, 0, List.of("Roof"))::toBytes).readableBytes());
+        assertRoundTrip(new QuestResultPacket(false, 128, List.of("Roof", "Bed"))::toBytes,
+            buf -> new QuestResultPacket(buf)::toBytes);
+    }
+
+    @Test
+    void questBookTargetIsSessionFlagAndOptionalPosition() {
+        assertEquals(1 + 1, write(new QuestBookTargetPacket(1, null)::toBytes).readableBytes());
+        assertEquals(1 + 1 + 8, write(new QuestBookTargetPacket(1, new BlockPos(-30000000, -64, 30000000))::toBytes).readableBytes());
+        assertEquals(2 + 1, write(new QuestBookTargetPacket(128, null)::toBytes).readableBytes());
+        assertRoundTrip(new QuestBookTargetPacket(300, new BlockPos(12, 70, -5))::toBytes,
+            buf -> new QuestBookTargetPacket(buf)::toBytes);
+    }
+
+    @Test
+    void closeQuestBookIsSession() {
+        assertEquals(1, write(new CloseQuestBookPacket(127)::toBytes).readableBytes());
+        assertEquals(2, write(new CloseQuestBookPacket(128)::toBytes).readableBytes());
+        assertRoundTrip(new CloseQuestBookPacket(128)::toBytes, buf -> new CloseQuestBookPacket(buf)::toBytes);
+    }
+}